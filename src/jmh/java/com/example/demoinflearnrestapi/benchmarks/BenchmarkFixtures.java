@@ -0,0 +1,116 @@
+package com.example.demoinflearnrestapi.benchmarks;
+
+import com.example.demoinflearnrestapi.common.ErrorsSerializer;
+import com.example.demoinflearnrestapi.events.Event;
+import com.example.demoinflearnrestapi.events.EventDto;
+import com.example.demoinflearnrestapi.events.EventStatus;
+import com.example.demoinflearnrestapi.events.EventView;
+import com.example.demoinflearnrestapi.events.EventViewSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.AnnotationLinkRelationProvider;
+import org.springframework.hateoas.server.core.DefaultLinkRelationProvider;
+import org.springframework.hateoas.server.core.DelegatingLinkRelationProvider;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.validation.Errors;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDateTime;
+
+/**
+ * 벤치마크들이 공유하는 테스트 데이터와 애플리케이션과 같은 설정의 ObjectMapper.
+ */
+public final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    public static EventDto eventDto() {
+        return EventDto.builder()
+                .name("Spring")
+                .description("REST API Development with Spring")
+                .beginEnrollmentDateTime(LocalDateTime.of(2010, 11, 7, 11, 11, 30))
+                .closeEnrollmentDateTime(LocalDateTime.of(2010, 11, 8, 13, 11, 20))
+                .beginEventDateTime(LocalDateTime.of(2010, 11, 25, 20, 30, 11))
+                .endEventDateTime(LocalDateTime.of(2010, 11, 25, 20, 30, 12))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("강남역 D2 스타텁 팩토리")
+                .build();
+    }
+
+    public static EventDto invalidEventDto() {
+        EventDto eventDto = eventDto();
+        eventDto.setBasePrice(10000);
+        eventDto.setEndEventDateTime(LocalDateTime.of(2010, 11, 1, 0, 0));
+        return eventDto;
+    }
+
+    public static Event event(int id) {
+        return Event.builder()
+                .id(id)
+                .name("event" + id)
+                .description("REST API Development with Spring")
+                .beginEnrollmentDateTime(LocalDateTime.of(2010, 11, 7, 11, 11, 30))
+                .closeEnrollmentDateTime(LocalDateTime.of(2010, 11, 8, 13, 11, 20))
+                .beginEventDateTime(LocalDateTime.of(2010, 11, 25, 20, 30, 11))
+                .endEventDateTime(LocalDateTime.of(2010, 11, 25, 20, 30, 12))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("강남역 D2 스타텁 팩토리")
+                .offline(true)
+                .eventStatus(EventStatus.DRAFT)
+                .build();
+    }
+
+    public static EventView eventView(int id) {
+        return EventView.from(event(id));
+    }
+
+    /**
+     * 스프링 부트 + Spring HATEOAS 가 HAL 응답에 쓰는 것과 같은 구성의 ObjectMapper.
+     */
+    public static ObjectMapper halObjectMapper() {
+        return halObjectMapper(true);
+    }
+
+    /**
+     * @param eventViewSerializer false 면 EventView 를 기본 빈 직렬화로 쓴다. (비교용)
+     */
+    public static ObjectMapper halObjectMapper(boolean eventViewSerializer) {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .serializerByType(Errors.class, new ErrorsSerializer())
+                .modulesToInstall(new Jackson2HalModule())
+                .handlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+                        new DelegatingLinkRelationProvider(
+                                new AnnotationLinkRelationProvider(), new DefaultLinkRelationProvider()),
+                        CurieProvider.NONE,
+                        MessageResolver.DEFAULTS_ONLY));
+        if (eventViewSerializer) {
+            builder.serializerByType(EventView.class, new EventViewSerializer());
+        }
+        return builder.build();
+    }
+
+    /**
+     * WebMvcLinkBuilder 는 현재 요청에서 base URI 를 읽기 때문에 요청 컨텍스트를 하나 묶어준다.
+     */
+    public static void bindRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/events");
+        request.setServerName("localhost");
+        request.setServerPort(8080);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    public static void resetRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+}
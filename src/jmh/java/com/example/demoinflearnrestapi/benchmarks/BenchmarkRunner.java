@@ -0,0 +1,27 @@
+package com.example.demoinflearnrestapi.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH 진입점. 모든 벤치마크에 gc 프로파일러를 붙여서 처리량과 함께 할당량(gc.alloc.rate.norm)을 보고한다.
+ * <p>
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.args="EventMapping -f 1 -wi 2 -i 3"}
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        // exec 플러그인은 jmh.args 를 하나의 인자로 넘기므로 다시 나눠준다.
+        String[] jmhArgs = String.join(" ", args).trim().split("\\s+");
+
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(jmhArgs))
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(options).run();
+    }
+}
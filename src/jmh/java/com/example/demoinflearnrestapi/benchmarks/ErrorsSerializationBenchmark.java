@@ -0,0 +1,47 @@
+package com.example.demoinflearnrestapi.benchmarks;
+
+import com.example.demoinflearnrestapi.events.EventDto;
+import com.example.demoinflearnrestapi.events.EventLinks;
+import com.example.demoinflearnrestapi.events.EventValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.validation.Errors;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 400 응답(ErrorsSerializer 출력 + index 링크)을 JSON 바이트로 직렬화하는 비용.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ErrorsSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private EntityModel<Errors> errorResource;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.bindRequest();
+        this.objectMapper = BenchmarkFixtures.halObjectMapper();
+
+        EventDto invalidEventDto = BenchmarkFixtures.invalidEventDto();
+        Errors errors = new EventValidator().validate(invalidEventDto);
+        this.errorResource = EntityModel.of(errors);
+        this.errorResource.add(new EventLinks().current().getIndex());
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkFixtures.resetRequest();
+    }
+
+    @Benchmark
+    public byte[] errors() throws Exception {
+        return this.objectMapper.writeValueAsBytes(this.errorResource);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.demoinflearnrestapi.benchmarks;
+
+import com.example.demoinflearnrestapi.Application;
+import com.example.demoinflearnrestapi.events.EventDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * 이벤트 N 개를 POST /api/events 로 한 건씩 만드는 것과 POST /api/events/batch 한 번으로 만드는 것의 비교.
+ * test 프로파일(H2 메모리 DB)로 애플리케이션을 띄우고 MockMvc 로 호출한다. 점수는 초당 처리한 호출 묶음 수이므로
+ * 이벤트 처리량은 점수 x events 다.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventBatchBenchmark {
+
+    @Param({"100", "1000"})
+    private int events;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private List<String> singleBodies;
+    private String batchBody;
+
+    @Setup
+    public void setUp() throws Exception {
+        this.context = new SpringApplicationBuilder(Application.class)
+                .profiles("test")
+                .run();
+        this.mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) this.context).build();
+
+        ObjectMapper objectMapper = this.context.getBean(ObjectMapper.class);
+        List<EventDto> eventDtos = new ArrayList<>();
+        this.singleBodies = new ArrayList<>();
+        for (int i = 0; i < this.events; i++) {
+            EventDto eventDto = BenchmarkFixtures.eventDto();
+            eventDto.setName("event" + i);
+            eventDtos.add(eventDto);
+            this.singleBodies.add(objectMapper.writeValueAsString(eventDto));
+        }
+        this.batchBody = objectMapper.writeValueAsString(eventDtos);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.context.close();
+    }
+
+    @Benchmark
+    public int singleCalls() throws Exception {
+        int status = 0;
+        for (String body : this.singleBodies) {
+            status += this.mockMvc.perform(post("/api/events")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                    .andReturn().getResponse().getStatus();
+        }
+        return status;
+    }
+
+    @Benchmark
+    public int batchCall() throws Exception {
+        return this.mockMvc.perform(post("/api/events/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(this.batchBody))
+                .andReturn().getResponse().getStatus();
+    }
+}
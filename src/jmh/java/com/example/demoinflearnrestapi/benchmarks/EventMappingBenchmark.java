@@ -0,0 +1,59 @@
+package com.example.demoinflearnrestapi.benchmarks;
+
+import com.example.demoinflearnrestapi.events.Event;
+import com.example.demoinflearnrestapi.events.EventDto;
+import com.example.demoinflearnrestapi.events.EventMapper;
+import org.mapstruct.factory.Mappers;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * createEvent / updateEvent 에서 EventDto 를 Event 로 옮기는 비용. 리플렉션 기반 ModelMapper 와 생성된 EventMapper 비교.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EventMappingBenchmark {
+
+    private ModelMapper modelMapper;
+    private EventMapper eventMapper;
+    private EventDto eventDto;
+    private Event existingEvent;
+
+    @Setup
+    public void setUp() {
+        this.modelMapper = new ModelMapper();
+        this.eventMapper = Mappers.getMapper(EventMapper.class);
+        this.eventDto = BenchmarkFixtures.eventDto();
+        this.existingEvent = BenchmarkFixtures.event(1);
+        // TypeMap 은 첫 호출에 만들어지므로 측정 전에 한번 만들어 둔다.
+        this.modelMapper.map(this.eventDto, Event.class);
+    }
+
+    @Benchmark
+    public Event modelMapperCreate() {
+        return this.modelMapper.map(this.eventDto, Event.class);
+    }
+
+    @Benchmark
+    public Event modelMapperUpdate() {
+        this.modelMapper.map(this.eventDto, this.existingEvent);
+        return this.existingEvent;
+    }
+
+    @Benchmark
+    public Event generatedCreate() {
+        return this.eventMapper.toEvent(this.eventDto);
+    }
+
+    @Benchmark
+    public Event generatedUpdate() {
+        this.eventMapper.updateEvent(this.eventDto, this.existingEvent);
+        return this.existingEvent;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.demoinflearnrestapi.benchmarks;
+
+import com.example.demoinflearnrestapi.events.EventLinkTemplate;
+import com.example.demoinflearnrestapi.events.EventLinks;
+import com.example.demoinflearnrestapi.events.EventResource;
+import com.example.demoinflearnrestapi.events.EventView;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.HateoasPageableHandlerMethodArgumentResolver;
+import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.PagedModel;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * getEvent 의 EventResource 생성과 queryEvents 의 페이지 조립(아이템마다 EventResource 생성) 비용.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EventResourceBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private EventView event;
+    private Page<EventView> page;
+    private PagedResourcesAssembler<EventView> assembler;
+    private EventLinks eventLinks;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.bindRequest();
+        this.event = BenchmarkFixtures.eventView(1);
+        List<EventView> events = IntStream.range(0, this.pageSize)
+                .mapToObj(BenchmarkFixtures::eventView)
+                .toList();
+        this.page = new PageImpl<>(events, PageRequest.of(1, this.pageSize), this.pageSize * 10L);
+        this.assembler = new PagedResourcesAssembler<>(new HateoasPageableHandlerMethodArgumentResolver(), null);
+        this.eventLinks = new EventLinks();
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkFixtures.resetRequest();
+    }
+
+    @Benchmark
+    public EventResource eventResource() {
+        return new EventResource(this.event, this.eventLinks.current());
+    }
+
+    @Benchmark
+    public PagedModel<EventResource> pagedResource() {
+        EventLinkTemplate links = this.eventLinks.current();
+        return this.assembler.toModel(this.page, event -> new EventResource(event, links));
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.demoinflearnrestapi.benchmarks;
+
+import com.example.demoinflearnrestapi.events.EventTextIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EventTextIndex 의 전체 색인 시간, 이벤트당 메모리, 검색 지연.
+ * 이벤트는 단어 5만 개에서 앞쪽 단어가 훨씬 자주 나오도록 뽑은 이름 3단어, 설명 20단어다.
+ * 색인 시간에는 문자열을 만드는 비용도 들어간다. 메모리는 GC 후 살아있는 힙의 차이를 bytesPerEvent 로 보고한다.
+ * <p>
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.args="EventTextIndex -p events=1000000"}
+ */
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class EventTextIndexBenchmark {
+
+    private static final int VOCABULARY = 50_000;
+    private static final String[] WORDS = new String[VOCABULARY];
+
+    static {
+        for (int i = 0; i < VOCABULARY; i++) {
+            WORDS[i] = "w" + Integer.toString(i, 36);
+        }
+    }
+
+    @Param({"100000", "1000000"})
+    private int events;
+
+    private EventTextIndex index;
+    private String[] queries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.index = build(this.events);
+        Random random = new Random(7);
+        this.queries = new String[1024];
+        for (int i = 0; i < this.queries.length; i++) {
+            // 흔한 단어, 드문 단어, 둘을 섞은 질의
+            this.queries[i] = switch (i % 3) {
+                case 0 -> word(random) + " " + word(random);
+                case 1 -> WORDS[VOCABULARY / 2 + random.nextInt(VOCABULARY / 2)];
+                default -> word(random) + " " + WORDS[VOCABULARY / 2 + random.nextInt(VOCABULARY / 2)];
+            };
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public EventTextIndex build() {
+        return build(this.events);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    public EventTextIndex memory(Memory memory) {
+        // 측정하는 동안에는 setUp 의 색인을 치워둔다.
+        this.index = null;
+        MemoryMXBean heap = ManagementFactory.getMemoryMXBean();
+        long before = usedAfterGc(heap);
+        EventTextIndex built = build(this.events);
+        memory.bytesPerEvent = (double) (usedAfterGc(heap) - before) / this.events;
+        this.index = built;
+        return built;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public EventTextIndex.Hits search() {
+        String query = this.queries[this.next++ & (this.queries.length - 1)];
+        return this.index.search(query, 0, 20);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Memory {
+
+        public double bytesPerEvent;
+    }
+
+    private static EventTextIndex build(int events) {
+        EventTextIndex index = new EventTextIndex();
+        Random random = new Random(42);
+        StringBuilder name = new StringBuilder();
+        StringBuilder description = new StringBuilder();
+        for (int id = 1; id <= events; id++) {
+            name.setLength(0);
+            description.setLength(0);
+            for (int w = 0; w < 3; w++) {
+                name.append(word(random)).append(' ');
+            }
+            for (int w = 0; w < 20; w++) {
+                description.append(word(random)).append(' ');
+            }
+            index.index(id, 0, name.toString(), description.toString());
+        }
+        index.trim();
+        return index;
+    }
+
+    // 세제곱으로 치우쳐서 앞쪽 단어가 자주 나온다.
+    private static String word(Random random) {
+        double r = random.nextDouble();
+        return WORDS[(int) (r * r * r * VOCABULARY)];
+    }
+
+    private static long usedAfterGc(MemoryMXBean heap) {
+        System.gc();
+        System.gc();
+        return heap.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.demoinflearnrestapi.benchmarks;
+
+import com.example.demoinflearnrestapi.events.EventDto;
+import com.example.demoinflearnrestapi.events.EventValidator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.validation.Errors;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EventValidator.validate 의 정상/실패 경로 비용. 정상 경로는 Errors 를 만들지 않으므로 -prof gc 로 할당도 같이 본다.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EventValidatorBenchmark {
+
+    private EventValidator eventValidator;
+    private EventDto validEventDto;
+    private EventDto invalidEventDto;
+
+    @Setup
+    public void setUp() {
+        this.eventValidator = new EventValidator();
+        this.validEventDto = BenchmarkFixtures.eventDto();
+        this.invalidEventDto = BenchmarkFixtures.invalidEventDto();
+    }
+
+    @Benchmark
+    public Errors validateValid() {
+        return this.eventValidator.validate(this.validEventDto);
+    }
+
+    @Benchmark
+    public Errors validateInvalid() {
+        return this.eventValidator.validate(this.invalidEventDto);
+    }
+}
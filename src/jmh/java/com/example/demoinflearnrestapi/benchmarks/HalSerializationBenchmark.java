@@ -0,0 +1,67 @@
+package com.example.demoinflearnrestapi.benchmarks;
+
+import com.example.demoinflearnrestapi.events.EventLinkTemplate;
+import com.example.demoinflearnrestapi.events.EventLinks;
+import com.example.demoinflearnrestapi.events.EventResource;
+import com.example.demoinflearnrestapi.events.EventView;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.HateoasPageableHandlerMethodArgumentResolver;
+import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.server.core.EmbeddedWrapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * queryEvents 의 페이지 응답을 HAL JSON 바이트로 직렬화하는 비용. 모델은 미리 만들어 두고 직렬화만 잰다.
+ * eventViewSerializer=false 는 EventViewSerializer 없이 기본 빈 직렬화로 쓰는 경우.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HalSerializationBenchmark {
+
+    @Param({"20", "100", "1000"})
+    private int pageSize;
+
+    @Param({"true", "false"})
+    private boolean eventViewSerializer;
+
+    private ObjectMapper objectMapper;
+    private PagedModel<EmbeddedWrapper> pagedResource;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.bindRequest();
+        this.objectMapper = BenchmarkFixtures.halObjectMapper(this.eventViewSerializer);
+
+        List<EventView> events = IntStream.range(0, this.pageSize)
+                .mapToObj(BenchmarkFixtures::eventView)
+                .toList();
+        PagedResourcesAssembler<EventView> assembler =
+                new PagedResourcesAssembler<>(new HateoasPageableHandlerMethodArgumentResolver(), null);
+        EventLinkTemplate links = new EventLinks().current();
+        this.pagedResource = EventResource.embedded(assembler.toModel(
+                new PageImpl<>(events, PageRequest.of(1, this.pageSize), this.pageSize * 10L),
+                event -> new EventResource(event, links)));
+        this.pagedResource.add(EventLinks.LIST_PROFILE);
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkFixtures.resetRequest();
+    }
+
+    @Benchmark
+    public byte[] pagedEvents() throws Exception {
+        return this.objectMapper.writeValueAsBytes(this.pagedResource);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.demoinflearnrestapi.benchmarks;
+
+import com.example.demoinflearnrestapi.events.EventLinks;
+import com.example.demoinflearnrestapi.events.controller.EventController;
+import com.example.demoinflearnrestapi.events.controller.IndexController;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.hateoas.Link;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+/**
+ * 컨트롤러 응답마다 만드는 HATEOAS 링크 비용.
+ * 요청 컨텍스트는 한번만 묶으므로 같은 요청 안에서 링크를 반복해서 만드는 비용(페이지 아이템 하나당 비용)을 잰다.
+ * linkTo / methodOn 을 직접 쓰는 경우와 EventLinks 템플릿을 쓰는 경우를 비교한다.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LinkBuildingBenchmark {
+
+    private int id;
+    private EventLinks eventLinks;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.bindRequest();
+        this.eventLinks = new EventLinks();
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkFixtures.resetRequest();
+    }
+
+    @Benchmark
+    public Link eventControllerLink() {
+        return linkTo(EventController.class).withRel("query-events");
+    }
+
+    @Benchmark
+    public Link eventSelfLink() {
+        return linkTo(EventController.class).slash(++this.id).withSelfRel();
+    }
+
+    @Benchmark
+    public Link indexLink() {
+        return linkTo(methodOn(IndexController.class).index()).withRel("index");
+    }
+
+    @Benchmark
+    public Link templateSelfLink() {
+        return this.eventLinks.current().self(++this.id);
+    }
+
+    @Benchmark
+    public Link templateIndexLink() {
+        return this.eventLinks.current().getIndex();
+    }
+}
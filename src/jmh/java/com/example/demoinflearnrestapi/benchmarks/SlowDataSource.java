@@ -0,0 +1,53 @@
+package com.example.demoinflearnrestapi.benchmarks;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * 쿼리를 실행할 때마다 latency 만큼 쉬어서 원격 DB 의 왕복 시간을 흉내낸다. 커넥션은 그동안 계속 빌린 상태다.
+ */
+class SlowDataSource extends DelegatingDataSource {
+
+    private final Duration latency;
+
+    SlowDataSource(DataSource targetDataSource, Duration latency) {
+        super(targetDataSource);
+        this.latency = latency;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, super.getConnection(username, password));
+    }
+
+    private <T> T proxy(Class<T> type, T target) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getName().startsWith("execute")) {
+                Thread.sleep(this.latency);
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+            // PreparedStatement / CallableStatement 도 같은 방식으로 감싼다.
+            if (result instanceof Statement statement && method.getReturnType().isInterface()) {
+                return proxy(method.getReturnType().asSubclass(Statement.class), statement);
+            }
+            return result;
+        }));
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.demoinflearnrestapi.benchmarks;
+
+import com.example.demoinflearnrestapi.Application;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 플랫폼 스레드 풀과 가상 스레드로 GET /api/events 를 처리할 때의 비교. 쿼리마다 100ms 씩 쉬는 DB 에
+ * Tomcat 스레드는 16 개, 커넥션 풀은 64 개로 두고 JMH 스레드 128 개가 동시에 요청한다.
+ * 플랫폼 스레드 모드는 스레드 수에, 가상 스레드 모드는 커넥션 수(세마포어)에 막힌다.
+ * <p>
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.args="VirtualThreadLoad -f 1 -wi 2 -i 3"}
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(128)
+@State(Scope.Benchmark)
+public class VirtualThreadLoadBenchmark {
+
+    private static final Duration QUERY_LATENCY = Duration.ofMillis(100);
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private HttpRequest request;
+
+    @Setup
+    public void setUp() {
+        this.context = new SpringApplicationBuilder(Application.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "server.tomcat.threads.max=16",
+                        "spring.datasource.hikari.maximum-pool-size=64",
+                        "virtual-threads.enabled=" + this.virtualThreads)
+                .initializers(context -> context.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+                    @Override
+                    public Object postProcessAfterInitialization(Object bean, String beanName) {
+                        return bean instanceof DataSource dataSource ? new SlowDataSource(dataSource, QUERY_LATENCY) : bean;
+                    }
+                }))
+                // test 프로파일의 security debug 로그는 synchronized 안에서 로깅해서 가상 스레드를 고정시킨다.
+                .run("--logging.level.org.springframework.security=info");
+
+        int port = ((WebServerApplicationContext) this.context).getWebServer().getPort();
+        this.httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        this.request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/events?page=0&size=10"))
+                .header("Accept", "application/hal+json")
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.context.close();
+    }
+
+    @Benchmark
+    public int queryEvents() throws Exception {
+        return this.httpClient.send(this.request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.demoinflearnrestapi.load;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 부하 테스트 한 번의 결과. JSON 으로 남겨서 실행끼리 비교한다. 시간은 모두 밀리초다.
+ *
+ * @param targetRate 설정한 초당 요청 수
+ * @param achievedRate 실제로 보낸 초당 요청 수. 보내는 쪽이 따라가지 못하면 targetRate 보다 작다.
+ */
+public record LoadReport(Instant startedAt,
+                         String javaVersion,
+                         int availableProcessors,
+                         LoadTestOptions options,
+                         int targetRate,
+                         double achievedRate,
+                         List<Endpoint> endpoints) {
+
+    /**
+     * @param sent       보내려고 한 요청 수 (dropped 포함)
+     * @param completed  응답이나 오류로 끝난 요청 수. 지연 백분위는 이 요청들로 센다.
+     * @param dropped    응답을 기다리는 요청이 maxInFlight 를 넘어서 보내지 않은 요청 수
+     * @param errors     4xx / 5xx 응답과 연결 오류, 타임아웃
+     * @param throughput 초당 completed
+     */
+    public record Endpoint(String name,
+                           long sent,
+                           long completed,
+                           long dropped,
+                           long errors,
+                           Map<String, Long> statuses,
+                           double throughput,
+                           double p50,
+                           double p99,
+                           double p999,
+                           double max) {
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.demoinflearnrestapi.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 부하 테스트 설정. {@code key=value} 인자로 받고, 없는 키는 기본값을 쓴다.
+ * <p>
+ * mix 는 엔드포인트별 요청 비율이다. 예) {@code mix=index:1,list:3,get:4,create:1,update:1}
+ */
+public record LoadTestOptions(int events,
+                              int accounts,
+                              int rate,
+                              Duration warmup,
+                              Duration duration,
+                              Duration timeout,
+                              int maxInFlight,
+                              Map<String, Integer> mix,
+                              long seed,
+                              Path out) {
+
+    static final String DEFAULT_MIX = "index:1,list:3,get:4,create:1,update:1";
+
+    private static final Set<String> KEYS = Set.of("events", "accounts", "rate", "warmup", "duration", "timeout",
+            "maxInFlight", "mix", "seed", "out");
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (arg.isBlank()) {
+                continue;
+            }
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected key=value but was " + arg);
+            }
+            values.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+
+        LoadTestOptions options = new LoadTestOptions(
+                Integer.parseInt(values.getOrDefault("events", "10000")),
+                Integer.parseInt(values.getOrDefault("accounts", "100")),
+                Integer.parseInt(values.getOrDefault("rate", "200")),
+                duration(values.getOrDefault("warmup", "30s")),
+                duration(values.getOrDefault("duration", "30s")),
+                duration(values.getOrDefault("timeout", "10s")),
+                Integer.parseInt(values.getOrDefault("maxInFlight", "10000")),
+                mix(values.getOrDefault("mix", DEFAULT_MIX)),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                Path.of(values.getOrDefault("out", "target/load-test.json")));
+        values.keySet().removeAll(KEYS);
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options " + values.keySet());
+        }
+        if (options.events() < 1 || options.accounts() < 1 || options.rate() < 1) {
+            throw new IllegalArgumentException("events, accounts and rate must be positive");
+        }
+        return options;
+    }
+
+    /**
+     * 30s, 500ms, 2m 처럼 받는다. 단위가 없으면 초다.
+     */
+    static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    static Map<String, Integer> mix(String value) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] nameAndWeight = entry.trim().split(":");
+            if (nameAndWeight.length != 2) {
+                throw new IllegalArgumentException("Expected name:weight but was " + entry);
+            }
+            int weight = Integer.parseInt(nameAndWeight[1]);
+            if (weight > 0) {
+                mix.put(nameAndWeight[0], weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("mix has no endpoint with a positive weight");
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.demoinflearnrestapi.load;
+
+import com.example.demoinflearnrestapi.Application;
+import com.example.demoinflearnrestapi.accounts.Account;
+import com.example.demoinflearnrestapi.accounts.AccountRepository;
+import com.example.demoinflearnrestapi.accounts.AccountRole;
+import com.example.demoinflearnrestapi.events.Event;
+import com.example.demoinflearnrestapi.events.EventDto;
+import com.example.demoinflearnrestapi.events.EventRepository;
+import com.example.demoinflearnrestapi.events.EventStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * 애플리케이션 전체(Tomcat, 보안 필터, JPA, HAL 직렬화)에 고정 도착률로 부하를 걸고 엔드포인트별 지연 백분위와 처리량을 남긴다.
+ * test 프로파일(H2)로 띄우고 이벤트와 계정을 넣은 뒤에, warmup 동안 보낸 결과는 버리고 duration 동안의 결과를 JSON 으로 쓴다.
+ * <p>
+ * 엔드포인트: index(GET /api), list(GET /api/events), get(GET /api/events/{id}), create(POST /api/events),
+ * update(PUT /api/events/{id}). 설정은 LoadTestOptions 를 본다.
+ * <p>
+ * {@code mvn -Pload test-compile exec:exec -Dload.args="rate=500 duration=60s events=50000 out=target/load-500.json"}
+ */
+public class LoadTestRunner {
+
+    private static final int SEED_CHUNK = 1_000;
+    private static final int PAGE_SIZE = 20;
+
+    public static void main(String[] args) throws Exception {
+        // exec 플러그인은 load.args 를 하나의 인자로 넘기므로 다시 나눠준다.
+        LoadTestOptions options = LoadTestOptions.parse(String.join(" ", args).trim().split("\\s+"));
+
+        // test 프로파일의 설정보다 앞서도록 명령행 인자로 준다. 요청마다 남는 security debug 로그와 SQL 예산 실패를 끈다.
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .profiles("test")
+                .run("--server.port=0",
+                        "--logging.level.org.springframework.security=info",
+                        "--sql-budget.fail-on-exceed=false",
+                        "--sql-budget.log-sample-rate=0");
+        try {
+            int[] eventIds = seed(context, options);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(options.timeout())
+                    .build();
+            OpenLoopDriver driver = new OpenLoopDriver(httpClient, options,
+                    targets(URI.create("http://localhost:" + port), objectMapper, options, eventIds));
+
+            Instant startedAt = Instant.now();
+            if (!options.warmup().isZero()) {
+                System.out.printf("Warming up for %s at %d req/s%n", options.warmup(), options.rate());
+                driver.run(options.warmup());
+            }
+            System.out.printf("Measuring for %s at %d req/s%n", options.duration(), options.rate());
+            OpenLoopDriver.Result result = driver.run(options.duration());
+
+            LoadReport report = new LoadReport(startedAt,
+                    Runtime.version().toString(),
+                    Runtime.getRuntime().availableProcessors(),
+                    options,
+                    options.rate(),
+                    result.achievedRate(),
+                    result.endpoints());
+            print(report);
+            Path out = options.out().toAbsolutePath();
+            Files.createDirectories(out.getParent());
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(out.toFile(), report);
+            System.out.println("Report written to " + out);
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * 계정과 이벤트를 SEED_CHUNK 개씩 한 트랜잭션으로 넣는다. 비밀번호는 한번만 인코딩해서 모든 계정이 같이 쓴다.
+     *
+     * @return 넣은 이벤트 id
+     */
+    private static int[] seed(ConfigurableApplicationContext context, LoadTestOptions options) {
+        AccountRepository accountRepository = context.getBean(AccountRepository.class);
+        EventRepository eventRepository = context.getBean(EventRepository.class);
+        String password = context.getBean(PasswordEncoder.class).encode("pass");
+        TransactionTemplate transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        List<Account> managers = new ArrayList<>(options.accounts());
+        for (int from = 0; from < options.accounts(); from += SEED_CHUNK) {
+            List<Account> chunk = new ArrayList<>();
+            for (int i = from; i < Math.min(from + SEED_CHUNK, options.accounts()); i++) {
+                chunk.add(Account.builder()
+                        .email("load" + i + "@email.com")
+                        .password(password)
+                        .roles(Set.of(AccountRole.ADMIN, AccountRole.USER))
+                        .build());
+            }
+            managers.addAll(transactionTemplate.execute(status -> accountRepository.saveAll(chunk)));
+        }
+
+        int[] eventIds = new int[options.events()];
+        LocalDateTime now = LocalDateTime.now();
+        EventStatus[] statuses = EventStatus.values();
+        for (int from = 0; from < options.events(); from += SEED_CHUNK) {
+            List<Event> chunk = new ArrayList<>();
+            for (int i = from; i < Math.min(from + SEED_CHUNK, options.events()); i++) {
+                LocalDateTime begin = now.plusHours(i % (24 * 365));
+                Event event = Event.builder()
+                        .name("load" + i)
+                        .description("REST API Development with Spring")
+                        .beginEnrollmentDateTime(begin)
+                        .closeEnrollmentDateTime(begin.plusDays(1))
+                        .beginEventDateTime(begin.plusDays(2))
+                        .endEventDateTime(begin.plusDays(3))
+                        .location(i % 2 == 0 ? "강남역 D2 스타텁 팩토리" : null)
+                        .basePrice(i % 5 * 100)
+                        .maxPrice(1000)
+                        .limitOfEnrollment(100)
+                        .eventStatus(statuses[i % statuses.length])
+                        .manager(managers.get(i % managers.size()))
+                        .build();
+                event.update();
+                chunk.add(event);
+            }
+            List<Event> saved = transactionTemplate.execute(status -> eventRepository.saveAll(chunk));
+            for (int i = 0; i < saved.size(); i++) {
+                eventIds[from + i] = saved.get(i).getId();
+            }
+        }
+        System.out.printf("Seeded %d accounts and %d events%n", options.accounts(), options.events());
+        return eventIds;
+    }
+
+    private static List<OpenLoopDriver.Target> targets(URI base, ObjectMapper objectMapper, LoadTestOptions options,
+                                                       int[] eventIds) throws Exception {
+        // 요청은 보내는 스레드 하나에서만 만드므로 Random 을 나눠 쓸 필요가 없다.
+        SplittableRandom random = new SplittableRandom(options.seed());
+        int pages = Math.max(1, eventIds.length / PAGE_SIZE);
+        byte[] body = objectMapper.writeValueAsBytes(eventDto());
+
+        Map<String, Supplier<HttpRequest>> requests = new LinkedHashMap<>();
+        requests.put("index", () -> get(base.resolve("/api"), options));
+        requests.put("list", () -> get(base.resolve("/api/events?page=" + random.nextInt(pages)
+                + "&size=" + PAGE_SIZE + "&sort=id,DESC"), options));
+        requests.put("get", () -> get(base.resolve("/api/events/" + eventIds[random.nextInt(eventIds.length)]), options));
+        requests.put("create", () -> send("POST", base.resolve("/api/events"), body, options));
+        requests.put("update", () -> send("PUT", base.resolve("/api/events/" + eventIds[random.nextInt(eventIds.length)]),
+                body, options));
+
+        List<OpenLoopDriver.Target> targets = new ArrayList<>();
+        options.mix().forEach((name, weight) -> {
+            Supplier<HttpRequest> request = requests.get(name);
+            if (request == null) {
+                throw new IllegalArgumentException("Unknown endpoint " + name + ", expected one of " + requests.keySet());
+            }
+            targets.add(new OpenLoopDriver.Target(name, weight, request));
+        });
+        return targets;
+    }
+
+    private static HttpRequest get(URI uri, LoadTestOptions options) {
+        return HttpRequest.newBuilder(uri)
+                .timeout(options.timeout())
+                .header("Accept", "application/hal+json")
+                .GET()
+                .build();
+    }
+
+    private static HttpRequest send(String method, URI uri, byte[] body, LoadTestOptions options) {
+        return HttpRequest.newBuilder(uri)
+                .timeout(options.timeout())
+                .header("Accept", "application/hal+json")
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+    }
+
+    private static EventDto eventDto() {
+        LocalDateTime begin = LocalDateTime.now().plusDays(7);
+        return EventDto.builder()
+                .name("load")
+                .description("REST API Development with Spring")
+                .beginEnrollmentDateTime(begin)
+                .closeEnrollmentDateTime(begin.plusDays(1))
+                .beginEventDateTime(begin.plusDays(2))
+                .endEventDateTime(begin.plusDays(3))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("강남역 D2 스타텁 팩토리")
+                .build();
+    }
+
+    private static void print(LoadReport report) {
+        System.out.printf("%nTarget %d req/s, achieved %.1f req/s%n", report.targetRate(), report.achievedRate());
+        System.out.printf("%-8s %8s %8s %8s %10s %9s %9s %9s %9s  %s%n",
+                "endpoint", "sent", "errors", "dropped", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "statuses");
+        for (LoadReport.Endpoint endpoint : report.endpoints()) {
+            System.out.printf("%-8s %8d %8d %8d %10.1f %9.2f %9.2f %9.2f %9.2f  %s%n",
+                    endpoint.name(), endpoint.sent(), endpoint.errors(), endpoint.dropped(), endpoint.throughput(),
+                    endpoint.p50(), endpoint.p99(), endpoint.p999(), endpoint.max(), endpoint.statuses());
+        }
+    }
+}
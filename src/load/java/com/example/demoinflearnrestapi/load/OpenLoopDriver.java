@@ -0,0 +1,172 @@
+package com.example.demoinflearnrestapi.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * 고정 도착률(open-loop)로 요청을 보낸다. 요청은 응답을 기다리지 않고 정해진 시각마다 나가고, 지연은 실제로 보낸 시각이 아니라
+ * 보냈어야 할 시각부터 잰다. 서버가 밀려서 보내는 쪽이 늦어진 시간도 지연에 들어간다. (coordinated omission)
+ * <p>
+ * 응답을 기다리는 요청이 maxInFlight 를 넘으면 그 요청은 보내지 않고 dropped 로 센다.
+ */
+class OpenLoopDriver {
+
+    static final String TOTAL = "total";
+
+    private final HttpClient httpClient;
+    private final LoadTestOptions options;
+    private final List<Target> targets;
+    private final int[] slots;
+
+    /**
+     * @param request 보낼 때마다 부른다. 요청을 보내는 스레드 하나에서만 불린다.
+     */
+    record Target(String name, int weight, Supplier<HttpRequest> request) {
+    }
+
+    OpenLoopDriver(HttpClient httpClient, LoadTestOptions options, List<Target> targets) {
+        this.httpClient = httpClient;
+        this.options = options;
+        this.targets = targets;
+        // 비율대로 섞어둔 순서를 돌면서 보낸다.
+        List<Integer> slots = new ArrayList<>();
+        for (int i = 0; i < targets.size(); i++) {
+            for (int w = 0; w < targets.get(i).weight(); w++) {
+                slots.add(i);
+            }
+        }
+        Collections.shuffle(slots, new Random(options.seed()));
+        this.slots = slots.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * @param endpoints 엔드포인트별 결과. 마지막 항목이 합계(total)다.
+     */
+    record Result(List<LoadReport.Endpoint> endpoints, double achievedRate) {
+    }
+
+    /**
+     * duration 동안 rate 로 보내고, 남은 응답을 timeout 까지 기다린 뒤에 결과를 돌려준다.
+     */
+    Result run(Duration duration) throws InterruptedException {
+        Map<String, Stats> stats = new LinkedHashMap<>();
+        this.targets.forEach(target -> stats.put(target.name(), new Stats()));
+        Stats[] statsBySlot = Arrays.stream(this.slots)
+                .mapToObj(slot -> stats.get(this.targets.get(slot).name()))
+                .toArray(Stats[]::new);
+        AtomicInteger inFlight = new AtomicInteger();
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / this.options.rate();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            int slot = this.slots[(int) (i % this.slots.length)];
+            Stats target = statsBySlot[(int) (i % this.slots.length)];
+            target.sent.increment();
+            if (inFlight.incrementAndGet() > this.options.maxInFlight()) {
+                inFlight.decrementAndGet();
+                target.dropped.increment();
+                continue;
+            }
+            HttpRequest request = this.targets.get(slot).request().get();
+            this.httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        long latency = System.nanoTime() - intended;
+                        inFlight.decrementAndGet();
+                        target.latency.recordValue(TimeUnit.NANOSECONDS.toMicros(latency));
+                        if (failure != null) {
+                            target.failures.increment();
+                        } else {
+                            target.statuses.computeIfAbsent(response.statusCode(), status -> new LongAdder()).increment();
+                        }
+                    });
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long drainUntil = System.nanoTime() + this.options.timeout().toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainUntil) {
+            Thread.sleep(10);
+        }
+
+        double seconds = elapsed / 1e9;
+        List<LoadReport.Endpoint> endpoints = new ArrayList<>();
+        Stats total = new Stats();
+        Histogram totalLatency = new Histogram(3);
+        for (Map.Entry<String, Stats> entry : stats.entrySet()) {
+            Stats endpoint = entry.getValue();
+            Histogram latency = endpoint.latency.getIntervalHistogram();
+            endpoints.add(endpoint.report(entry.getKey(), latency, seconds));
+            totalLatency.add(latency);
+            total.add(endpoint);
+        }
+        endpoints.add(total.report(TOTAL, totalLatency, seconds));
+        return new Result(endpoints, (total.sent.sum() - total.dropped.sum()) / seconds);
+    }
+
+    private static final class Stats {
+
+        // 마이크로초. 범위를 정하지 않고 필요한 만큼 늘린다.
+        final Recorder latency = new Recorder(3);
+        final LongAdder sent = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+        void add(Stats other) {
+            this.sent.add(other.sent.sum());
+            this.dropped.add(other.dropped.sum());
+            this.failures.add(other.failures.sum());
+            other.statuses.forEach((status, count) ->
+                    this.statuses.computeIfAbsent(status, key -> new LongAdder()).add(count.sum()));
+        }
+
+        LoadReport.Endpoint report(String name, Histogram histogram, double seconds) {
+            Map<String, Long> statusCounts = new TreeMap<>();
+            long errors = this.failures.sum();
+            for (Map.Entry<Integer, LongAdder> status : this.statuses.entrySet()) {
+                long count = status.getValue().sum();
+                statusCounts.put(String.valueOf(status.getKey()), count);
+                if (status.getKey() >= 400) {
+                    errors += count;
+                }
+            }
+            long completed = histogram.getTotalCount();
+            return new LoadReport.Endpoint(name,
+                    this.sent.sum(),
+                    completed,
+                    this.dropped.sum(),
+                    errors,
+                    statusCounts,
+                    completed / seconds,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()));
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.demoinflearnrestapi.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 프로세스를 띄운 때부터 GET /api 가 처음 200 을 돌려줄 때까지의 시간을 모드별로 잰다. 모드는 번갈아 가며 runs 번씩 띄운다.
+ * <ul>
+ *     <li>default: 기본 프로파일. AOT, CDS 없이 스키마를 create-drop 으로 만든다.</li>
+ *     <li>aot: fast-startup 프로파일과 AOT 처리한 클래스. 스키마는 Flyway 로 만들고 검증한다.</li>
+ *     <li>aot-cds: aot 에 빌드 때 만든 CDS 아카이브(app.jsa)를 더한다. 운영에서 띄우는 그대로다. (app.args)</li>
+ * </ul>
+ * 세 모드 모두 같은 클래스패스(target/fast-startup 의 app.jar 와 lib)와 메모리 H2 를 쓴다.
+ * <p>
+ * {@code mvn -Pfast-startup,load -DskipTests package exec:exec -Dload.main=com.example.demoinflearnrestapi.load.StartupBenchmark -Dload.args="runs=5"}
+ */
+public class StartupBenchmark {
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+
+    record Mode(String name, List<String> jvmArgs) {
+    }
+
+    public record Report(Instant startedAt, String javaVersion, int availableProcessors, int runs, List<Result> modes) {
+    }
+
+    /**
+     * @param millis 실행마다 GET /api 가 처음 200 을 돌려주기까지 걸린 밀리초
+     */
+    public record Result(String mode, List<Long> millis, long min, long median, long max) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : String.join(" ", args).trim().split("\\s+")) {
+            int separator = arg.indexOf('=');
+            if (separator > 0) {
+                options.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+        }
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        Path dir = Path.of(options.getOrDefault("dir", "target/fast-startup")).toAbsolutePath();
+        Duration timeout = LoadTestOptions.duration(options.getOrDefault("timeout", "120s"));
+        Path out = Path.of(options.getOrDefault("out", "target/startup.json")).toAbsolutePath();
+
+        List<Mode> modes = modes(dir);
+        Map<String, List<Long>> millis = new LinkedHashMap<>();
+        modes.forEach(mode -> millis.put(mode.name(), new ArrayList<>()));
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+        Instant startedAt = Instant.now();
+        for (int run = 0; run < runs; run++) {
+            for (Mode mode : modes) {
+                long elapsed = launch(httpClient, dir, mode, run, timeout);
+                System.out.printf("%-8s run %d: %d ms%n", mode.name(), run + 1, elapsed);
+                millis.get(mode.name()).add(elapsed);
+            }
+        }
+
+        List<Result> results = new ArrayList<>();
+        millis.forEach((mode, values) -> {
+            List<Long> sorted = values.stream().sorted().toList();
+            results.add(new Result(mode, values, sorted.get(0), sorted.get(sorted.size() / 2), sorted.get(sorted.size() - 1)));
+        });
+        Report report = new Report(startedAt, Runtime.version().toString(), Runtime.getRuntime().availableProcessors(),
+                runs, results);
+
+        System.out.printf("%n%-8s %8s %8s %8s%n", "mode", "min ms", "p50 ms", "max ms");
+        results.forEach(result -> System.out.printf("%-8s %8d %8d %8d%n",
+                result.mode(), result.min(), result.median(), result.max()));
+        Files.createDirectories(out.getParent());
+        new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .writerWithDefaultPrettyPrinter()
+                .writeValue(out.toFile(), report);
+        System.out.println("Report written to " + out);
+    }
+
+    /**
+     * app.args 에서 fast-startup 빌드가 고정한 클래스패스와 JVM 옵션을 읽어서 모드별 옵션을 만든다.
+     */
+    private static List<Mode> modes(Path dir) throws IOException {
+        Path argsFile = dir.resolve("app.args");
+        if (!Files.exists(argsFile)) {
+            throw new IllegalStateException(argsFile + " not found, build with mvn -Pfast-startup package first");
+        }
+        List<String> appArgs = Arrays.asList(Files.readString(argsFile).trim().split("\\s+"));
+        int classpath = appArgs.indexOf("-cp");
+        List<String> launch = appArgs.subList(classpath, appArgs.size()); // -cp <classpath> <main class>
+        List<String> aot = appArgs.stream()
+                .filter(arg -> arg.startsWith("-Dspring."))
+                .toList();
+
+        List<String> aotArgs = new ArrayList<>(aot);
+        aotArgs.addAll(launch);
+        return List.of(
+                new Mode("default", launch),
+                new Mode("aot", aotArgs),
+                new Mode("aot-cds", List.of("@app.args")));
+    }
+
+    private static long launch(HttpClient httpClient, Path dir, Mode mode, int run, Duration timeout) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(mode.jvmArgs());
+        command.addAll(List.of(
+                "--server.port=" + port,
+                "--spring.datasource.url=jdbc:h2:mem:startup;MODE=PostgreSQL",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password="));
+        Path log = dir.resolve("startup-" + mode.name() + "-" + (run + 1) + ".log");
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api"))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(dir.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            long deadline = start + timeout.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(mode.name() + " exited with " + process.exitValue() + ", see " + log);
+                }
+                try {
+                    if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (ConnectException e) {
+                    // 아직 포트를 열지 않았다.
+                }
+                Thread.sleep(POLL_INTERVAL.toMillis());
+            }
+            throw new IllegalStateException(mode.name() + " did not answer GET /api within " + timeout + ", see " + log);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+}
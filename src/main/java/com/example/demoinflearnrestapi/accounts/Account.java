@@ -2,10 +2,13 @@ package com.example.demoinflearnrestapi.accounts;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.Set;
 
 @Entity
+// 이메일로 로그인한다. AccountService.normalizeEmail 로 정규화한 값이 들어간다.
+@Table(indexes = @Index(name = "uk_account_email", columnList = "email", unique = true))
 @Getter @Setter @EqualsAndHashCode(of = "id")
 @Builder @NoArgsConstructor @AllArgsConstructor
 public class Account {
@@ -19,5 +22,6 @@ public class Account {
 
     @ElementCollection(fetch = FetchType.EAGER)
     @Enumerated(EnumType.STRING)
+    @BatchSize(size = 100) // 이벤트 목록처럼 여러 계정을 한번에 읽을 때 roles 를 IN 쿼리 하나로 읽는다.
     private Set<AccountRole> roles;
 }
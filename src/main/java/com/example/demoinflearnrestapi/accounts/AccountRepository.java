@@ -1,10 +1,17 @@
 package com.example.demoinflearnrestapi.accounts;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Optional;
 
 public interface AccountRepository extends JpaRepository<Account, Integer> {
     Optional<Account> findByEmail(String username);
+
+    /**
+     * 저장된 이메일. 이메일을 바꾸기 전의 캐시 키를 찾을 때 쓴다.
+     */
+    @Query("select a.email from Account a where a.id = :id")
+    Optional<String> findEmailById(Integer id);
 }
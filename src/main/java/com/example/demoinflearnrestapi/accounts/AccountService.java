@@ -1,38 +1,97 @@
 package com.example.demoinflearnrestapi.accounts;
 
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
-import java.util.Optional;
+import java.util.Locale;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+/**
+ * 인증할 때마다 계정과 roles 를 읽지 않도록 UserDetails 를 이메일(정규화한 값) 기준으로 캐시한다.
+ * saveAccount 와 로그인할 때의 재해시(updatePassword)가 해당 이메일의 항목을 지우고(이메일을 바꾸면 이전 이메일의 항목도), 그 밖의 변경은 TTL 이 지나면 반영된다.
+ * 없는 계정은 캐시하지 않는다. hit / miss 는 cache.gets{cache="userDetails"} 로 남긴다.
+ */
 @Service
-@RequiredArgsConstructor
-public class AccountService implements UserDetailsService {
+public class AccountService implements UserDetailsService, UserDetailsPasswordService {
 
     private final AccountRepository accountRepository;
     private final PasswordEncoder passwordEncoder;
+    private final Cache<String, User> userDetailsCache;
+
+    public AccountService(AccountRepository accountRepository,
+                          PasswordEncoder passwordEncoder,
+                          UserDetailsCacheProperties properties,
+                          MeterRegistry meterRegistry) {
+        this.accountRepository = accountRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.userDetailsCache = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build(), "userDetails");
+    }
 
     public Account saveAccount(Account account) {
+        account.setEmail(normalizeEmail(account.getEmail()));
         account.setPassword(this.passwordEncoder.encode(account.getPassword()));
-        return this.accountRepository.save(account);
+        // 이메일을 바꾸면 이전 이메일로 캐시된 항목(이전 비밀번호)도 지워야 한다.
+        String previousEmail = account.getId() == null ? null
+                : this.accountRepository.findEmailById(account.getId()).orElse(null);
+        Account savedAccount = this.accountRepository.save(account);
+        // 같은 키를 읽고 있는 중이면 그 로드가 끝난 다음에 지워진다.
+        this.userDetailsCache.invalidate(savedAccount.getEmail());
+        if (previousEmail != null && !previousEmail.equals(savedAccount.getEmail())) {
+            this.userDetailsCache.invalidate(previousEmail);
+        }
+        return savedAccount;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        Account account = accountRepository.findByEmail(username)
-                .orElseThrow(() -> new UsernameNotFoundException(username));
+        String email = normalizeEmail(username);
+        User cached = this.userDetailsCache.get(email, key -> this.accountRepository.findByEmail(key)
+                .map(account -> new User(account.getEmail(), account.getPassword(), authorities(account.getRoles())))
+                .orElse(null));
+        if (cached == null) {
+            throw new UsernameNotFoundException(username);
+        }
+
+        // ProviderManager 가 인증 후에 UserDetails 의 비밀번호를 지우므로(eraseCredentials) 캐시된 객체는 내보내지 않는다.
+        // authorities 는 불변이라 그대로 같이 쓴다.
+        return new User(cached.getUsername(), cached.getPassword(), cached.getAuthorities());
+    }
+
+    /**
+     * 로그인에 성공했는데 저장된 해시의 cost 가 설정과 다르면 DaoAuthenticationProvider 가 새로 해시해서 넘겨준다.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        String email = normalizeEmail(user.getUsername());
+        this.accountRepository.findByEmail(email).ifPresent(account -> account.setPassword(newPassword));
+        this.userDetailsCache.invalidate(email);
+        return new User(user.getUsername(), newPassword, user.getAuthorities());
+    }
 
-        return new User(account.getEmail(), account.getPassword(), authorities(account.getRoles()));
+    /**
+     * 이메일은 앞뒤 공백을 없애고 소문자로 저장하고 조회한다. email 컬럼의 unique 인덱스도 이 값 기준이다.
+     */
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
     }
 
     private Collection<? extends GrantedAuthority> authorities(Set<AccountRole> roles) {
@@ -0,0 +1,18 @@
+package com.example.demoinflearnrestapi.accounts;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "accounts.user-details-cache")
+@Getter @Setter
+public class UserDetailsCacheProperties {
+
+    private long maximumSize = 10_000;
+
+    private Duration ttl = Duration.ofMinutes(5);
+}
@@ -5,45 +5,44 @@ import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import org.springframework.boot.jackson.JsonComponent;
 import org.springframework.validation.Errors;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
 
 import java.io.IOException;
 
 @JsonComponent
 public class ErrorsSerializer extends JsonSerializer<Errors> {
+
+    // "errors" 필드 이름을 직접 쓰므로 항상 @JsonUnwrapped 자리에서 쓰인다. (EntityModel, EventBatchFailure)
+    @Override
+    public boolean isUnwrappingSerializer() {
+        return true;
+    }
+
+    // 쓰기 실패는 삼키지 않고 그대로 던진다. 반쯤 쓴 응답이 200 으로 나가는 것보다 낫다.
     @Override
     public void serialize(Errors errors, JsonGenerator jsonGenerator, SerializerProvider serializerProvider) throws IOException {
         jsonGenerator.writeFieldName("errors");
         jsonGenerator.writeStartArray();
-        errors.getFieldErrors().forEach(e -> {
-            try {
-                jsonGenerator.writeStartObject();
-                jsonGenerator.writeStringField("field", e.getField());
-                jsonGenerator.writeStringField("objectName", e.getObjectName());
-                jsonGenerator.writeStringField("code", e.getCode());
-                jsonGenerator.writeStringField("defaultMessage", e.getDefaultMessage());
-                Object rejectedValue = e.getRejectedValue();
-
-                if(rejectedValue != null) {
-                    jsonGenerator.writeStringField("rejectedValue", rejectedValue.toString());
-                }
-
-                jsonGenerator.writeEndObject();
-            } catch (IOException ex) {
-                ex.printStackTrace();
-            }
-        });
-
-        errors.getGlobalErrors().forEach(e -> {
-            try {
-                jsonGenerator.writeStartObject();
-                jsonGenerator.writeStringField("objectName", e.getObjectName());
-                jsonGenerator.writeStringField("code", e.getCode());
-                jsonGenerator.writeStringField("defaultMessage", e.getDefaultMessage());
-                jsonGenerator.writeEndObject();
-            } catch (IOException ex) {
-                ex.printStackTrace();
+        for (FieldError e : errors.getFieldErrors()) {
+            jsonGenerator.writeStartObject();
+            jsonGenerator.writeStringField("field", e.getField());
+            jsonGenerator.writeStringField("objectName", e.getObjectName());
+            jsonGenerator.writeStringField("code", e.getCode());
+            jsonGenerator.writeStringField("defaultMessage", e.getDefaultMessage());
+            Object rejectedValue = e.getRejectedValue();
+            if (rejectedValue != null) {
+                jsonGenerator.writeStringField("rejectedValue", rejectedValue.toString());
             }
-        });
+            jsonGenerator.writeEndObject();
+        }
+        for (ObjectError e : errors.getGlobalErrors()) {
+            jsonGenerator.writeStartObject();
+            jsonGenerator.writeStringField("objectName", e.getObjectName());
+            jsonGenerator.writeStringField("code", e.getCode());
+            jsonGenerator.writeStringField("defaultMessage", e.getDefaultMessage());
+            jsonGenerator.writeEndObject();
+        }
         jsonGenerator.writeEndArray();
     }
 }
@@ -0,0 +1,21 @@
+package com.example.demoinflearnrestapi.common;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 핸들러 메서드 하나가 요청마다 쓸 수 있는 SQL 수. 없으면 sql-budget.* 설정을 쓴다. (SqlBudgetFilter)
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SqlBudget {
+
+    int statements();
+
+    /**
+     * 같은 모양의 SQL 을 몇 번까지 허용할지. 음수면 sql-budget.max-repeats.
+     */
+    int repeats() default -1;
+}
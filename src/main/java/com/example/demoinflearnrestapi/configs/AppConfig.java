@@ -1,10 +1,9 @@
 package com.example.demoinflearnrestapi.configs;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.modelmapper.ModelMapper;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
 public class AppConfig {
@@ -14,8 +13,12 @@ public class AppConfig {
         return new ModelMapper();
     }
 
+    /**
+     * AccountService 와 폼 로그인이 같이 쓴다. 해시는 요청 스레드가 아닌 전용 풀에서 한다.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(PasswordHashingProperties properties, MeterRegistry meterRegistry) {
+        int threads = properties.getThreads() != null ? properties.getThreads() : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(properties.getStrength(), threads, properties.getQueueCapacity(), meterRegistry);
     }
 }
@@ -0,0 +1,112 @@
+package com.example.demoinflearnrestapi.configs;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt 해시와 비교를 요청 스레드 대신 크기가 정해진 전용 스레드 풀에서 한다. 요청 스레드는 결과를 기다리기만 하므로
+ * 로그인이 몰려도 CPU 를 쓰는 건 풀의 스레드뿐이다. 대기열까지 차면 기다리지 않고 PasswordHashingRejectedException 을 던진다.
+ * <p>
+ * 대기열 길이, 실행 중인 스레드 수, 해시 한번의 시간, 거절한 수를 password.hashing.* 메트릭으로 남긴다.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private static final Pattern BCRYPT = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+
+    private final PasswordEncoder delegate;
+    private final int strength;
+    private final ThreadPoolExecutor executor;
+
+    private final Timer hashes;
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(int strength, int threads, int queueCapacity, MeterRegistry meterRegistry) {
+        this(new BCryptPasswordEncoder(strength), strength, threads, queueCapacity, meterRegistry);
+    }
+
+    BoundedPasswordEncoder(PasswordEncoder delegate, int strength, int threads, int queueCapacity,
+                           MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.strength = strength;
+        BlockingQueue<Runnable> queue = queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity) : new SynchronousQueue<>();
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, queue, runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("password.hashing.queue", this.executor, executor -> executor.getQueue().size())
+                .description("Password hashes waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.active", this.executor, ThreadPoolExecutor::getActiveCount)
+                .description("Threads hashing passwords")
+                .register(meterRegistry);
+        this.hashes = Timer.builder("password.hashing")
+                .description("Password hash and match calls on the hashing pool")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("password.hashing.rejected")
+                .description("Password hashes rejected because the pool and its queue were full")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> this.delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> this.delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * cost 가 설정과 다르면 (높든 낮든) 다시 해시한다. BCrypt 해시가 아니면 건드리지 않는다.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT.matcher(encodedPassword);
+        return matcher.matches() && Integer.parseInt(matcher.group(1)) != this.strength;
+    }
+
+    public void shutdown() {
+        this.executor.shutdown();
+    }
+
+    private <T> T execute(Supplier<T> hashing) {
+        Future<T> future;
+        try {
+            future = this.executor.submit(() -> this.hashes.record(hashing));
+        } catch (RejectedExecutionException e) {
+            this.rejected.increment();
+            throw new PasswordHashingRejectedException("Password hashing is saturated ("
+                    + this.executor.getMaximumPoolSize() + " threads, " + this.executor.getQueue().size() + " queued)");
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.demoinflearnrestapi.configs;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Hibernate Statistics 를 Micrometer 로 내보낸다. 이름은 hibernate-micrometer 와 같게 맞췄다.
+ * 쿼리 문자열이나 엔티티 id 는 태그로 쓰지 않고 전체 합계만 낸다.
+ * hibernate.generate_statistics=true 가 아니면 아무것도 등록하지 않는다.
+ */
+@Component
+public class HibernateStatisticsMetrics implements MeterBinder {
+
+    private final Statistics statistics;
+
+    public HibernateStatisticsMetrics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!this.statistics.isStatisticsEnabled()) {
+            return;
+        }
+        counter(registry, "hibernate.sessions.open", Statistics::getSessionOpenCount);
+        counter(registry, "hibernate.transactions", Statistics::getSuccessfulTransactionCount, "result", "success");
+        counter(registry, "hibernate.transactions", s -> s.getTransactionCount() - s.getSuccessfulTransactionCount(),
+                "result", "failure");
+        counter(registry, "hibernate.optimistic.failures", Statistics::getOptimisticFailureCount);
+        counter(registry, "hibernate.flushes", Statistics::getFlushCount);
+        counter(registry, "hibernate.statements", Statistics::getPrepareStatementCount, "status", "prepared");
+
+        counter(registry, "hibernate.query.executions", Statistics::getQueryExecutionCount);
+        TimeGauge.builder("hibernate.query.executions.max", this.statistics, TimeUnit.MILLISECONDS,
+                        Statistics::getQueryExecutionMaxTime)
+                .description("The time of the slowest query")
+                .register(registry);
+
+        counter(registry, "hibernate.entities.loads", Statistics::getEntityLoadCount);
+        counter(registry, "hibernate.entities.fetches", Statistics::getEntityFetchCount);
+        counter(registry, "hibernate.entities.inserts", Statistics::getEntityInsertCount);
+        counter(registry, "hibernate.entities.updates", Statistics::getEntityUpdateCount);
+        counter(registry, "hibernate.entities.deletes", Statistics::getEntityDeleteCount);
+        counter(registry, "hibernate.collections.loads", Statistics::getCollectionLoadCount);
+        counter(registry, "hibernate.collections.fetches", Statistics::getCollectionFetchCount);
+
+        counter(registry, "hibernate.second.level.cache.requests", Statistics::getSecondLevelCacheHitCount, "result", "hit");
+        counter(registry, "hibernate.second.level.cache.requests", Statistics::getSecondLevelCacheMissCount, "result", "miss");
+        counter(registry, "hibernate.second.level.cache.puts", Statistics::getSecondLevelCachePutCount);
+        counter(registry, "hibernate.query.cache.requests", Statistics::getQueryCacheHitCount, "result", "hit");
+        counter(registry, "hibernate.query.cache.requests", Statistics::getQueryCacheMissCount, "result", "miss");
+    }
+
+    private void counter(MeterRegistry registry, String name, ToDoubleFunction<Statistics> count, String... tags) {
+        FunctionCounter.builder(name, this.statistics, count)
+                .tags(tags)
+                .register(registry);
+    }
+}
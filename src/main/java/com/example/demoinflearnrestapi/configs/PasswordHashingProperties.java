@@ -0,0 +1,34 @@
+package com.example.demoinflearnrestapi.configs;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "password-hashing")
+@Getter @Setter
+public class PasswordHashingProperties {
+
+    /**
+     * BCrypt cost. 바꾸면 다른 cost 로 저장된 비밀번호는 다음 로그인 때 다시 해시한다.
+     */
+    private int strength = 10;
+
+    /**
+     * 해시 전용 스레드 수. 비워두면 코어 수를 쓴다.
+     */
+    private Integer threads;
+
+    /**
+     * 스레드가 모두 바쁠 때 기다릴 수 있는 요청 수. 넘치면 바로 503 으로 거절한다.
+     */
+    private int queueCapacity = 64;
+
+    /**
+     * 거절할 때 Retry-After 로 보내는 시간.
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+}
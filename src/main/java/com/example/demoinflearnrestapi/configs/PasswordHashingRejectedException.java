@@ -0,0 +1,11 @@
+package com.example.demoinflearnrestapi.configs;
+
+/**
+ * 비밀번호 해시 스레드와 대기열이 모두 차서 요청을 받지 못했다. PasswordHashingRejectedFilter 가 503 으로 바꾼다.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+}
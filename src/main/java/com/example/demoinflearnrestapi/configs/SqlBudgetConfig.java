@@ -0,0 +1,24 @@
+package com.example.demoinflearnrestapi.configs;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * SqlBudgetFilter 가 읽는 SqlStatementRecorder 를 Hibernate 에 건다.
+ * spring.jpa.properties 로 다른 statement inspector 를 지정했으면 그쪽을 그대로 둔다.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "sql-budget", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SqlBudgetConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementRecorderCustomizer() {
+        return properties -> {
+            properties.putIfAbsent(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementRecorder.Inspector());
+            properties.putIfAbsent(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SqlStatementRecorder.JdbcTimer.class.getName());
+        };
+    }
+}
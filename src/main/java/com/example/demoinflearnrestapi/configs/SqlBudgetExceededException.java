@@ -0,0 +1,11 @@
+package com.example.demoinflearnrestapi.configs;
+
+/**
+ * 요청이 SQL 예산을 넘겼다. sql-budget.fail-on-exceed=true 일 때만 SqlBudgetFilter 가 던진다.
+ */
+public class SqlBudgetExceededException extends RuntimeException {
+
+    public SqlBudgetExceededException(String message) {
+        super(message);
+    }
+}
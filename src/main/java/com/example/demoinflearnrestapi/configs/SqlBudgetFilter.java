@@ -0,0 +1,116 @@
+package com.example.demoinflearnrestapi.configs;
+
+import com.example.demoinflearnrestapi.common.SqlBudget;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 요청마다 나간 SQL 수와 JDBC 시간을 uri 템플릿별 메트릭(sql.statements, sql.jdbc.time)으로 남긴다.
+ * 예산(@SqlBudget 또는 sql-budget.*)을 넘기면 sql.budget.exceeded 를 세고, 일부는 SQL 모양과 횟수를 로그로 남긴다.
+ * 시큐리티 필터에서 나가는 SQL 도 세도록 PasswordHashingRejectedFilter 바로 안쪽에서 돈다.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(prefix = "sql-budget", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    private static final int LOGGED_SHAPES = 5;
+
+    private final SqlBudgetProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementRecorder.Recording recording = SqlStatementRecorder.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatementRecorder.stop();
+        }
+        check(request, recording);
+    }
+
+    private void check(HttpServletRequest request, SqlStatementRecorder.Recording recording) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder("sql.statements")
+                .description("SQL statements per request")
+                .tag("uri", uri)
+                .register(this.meterRegistry)
+                .record(recording.statements());
+        Timer.builder("sql.jdbc.time")
+                .description("JDBC execution time per request")
+                .tag("uri", uri)
+                .register(this.meterRegistry)
+                .record(recording.jdbcNanos(), TimeUnit.NANOSECONDS);
+
+        SqlBudget budget = budget(request);
+        int maxStatements = budget != null ? budget.statements() : this.properties.getMaxStatements();
+        int maxRepeats = budget != null && budget.repeats() >= 0 ? budget.repeats() : this.properties.getMaxRepeats();
+        String reason;
+        if (recording.statements() > maxStatements) {
+            reason = "statements";
+        } else if (recording.maxRepeats() > maxRepeats) {
+            reason = "repeats";
+        } else if (recording.jdbcNanos() > this.properties.getMaxJdbcTime().toNanos()) {
+            reason = "jdbcTime";
+        } else {
+            return;
+        }
+
+        Counter.builder("sql.budget.exceeded")
+                .tag("uri", uri)
+                .tag("reason", reason)
+                .register(this.meterRegistry)
+                .increment();
+        String message = String.format("%s %s exceeded SQL budget (%s): %d statements (max %d), max repeats %d (max %d), jdbc %d ms (max %d ms)",
+                request.getMethod(), uri, reason,
+                recording.statements(), maxStatements,
+                recording.maxRepeats(), maxRepeats,
+                TimeUnit.NANOSECONDS.toMillis(recording.jdbcNanos()), this.properties.getMaxJdbcTime().toMillis());
+        if (ThreadLocalRandom.current().nextDouble() < this.properties.getLogSampleRate()) {
+            log.warn("{}\n{}", message, shapes(recording));
+        }
+        if (this.properties.isFailOnExceed()) {
+            throw new SqlBudgetExceededException(message + "\n" + shapes(recording));
+        }
+    }
+
+    private static SqlBudget budget(HttpServletRequest request) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        return handler instanceof HandlerMethod handlerMethod ? handlerMethod.getMethodAnnotation(SqlBudget.class) : null;
+    }
+
+    // 가장 많이 나간 모양부터
+    private static String shapes(SqlStatementRecorder.Recording recording) {
+        return recording.shapes().entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .limit(LOGGED_SHAPES)
+                .map(e -> "  " + e.getValue() + "x " + e.getKey())
+                .collect(Collectors.joining("\n"));
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.demoinflearnrestapi.configs;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "sql-budget")
+@Getter @Setter
+public class SqlBudgetProperties {
+
+    /**
+     * 요청마다 SQL 수와 JDBC 시간을 센다.
+     */
+    private boolean enabled = true;
+
+    /**
+     * 핸들러에 @SqlBudget 이 없을 때 요청 하나가 쓸 수 있는 SQL 수.
+     */
+    private int maxStatements = 20;
+
+    /**
+     * 같은 모양의 SQL 이 이보다 많이 나가면 N+1 로 본다.
+     */
+    private int maxRepeats = 10;
+
+    /**
+     * 요청 하나의 JDBC 실행 시간 합계.
+     */
+    private Duration maxJdbcTime = Duration.ofSeconds(1);
+
+    /**
+     * 예산을 넘긴 요청 중 SQL 모양을 로그로 남길 비율. (0 ~ 1)
+     */
+    private double logSampleRate = 0.1;
+
+    /**
+     * 예산을 넘기면 SqlBudgetExceededException 을 던진다. 테스트용.
+     */
+    private boolean failOnExceed = false;
+}
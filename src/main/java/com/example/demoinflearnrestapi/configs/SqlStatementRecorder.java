@@ -0,0 +1,117 @@
+package com.example.demoinflearnrestapi.configs;
+
+import org.hibernate.SessionEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 현재 스레드에서 나간 SQL 수와 JDBC 실행 시간을 모은다. SqlBudgetFilter 가 요청마다 start / stop 한다.
+ * SQL 은 바인딩 전의 문장(? 자리표시자)이라 그 자체가 모양이다. 같은 모양이 몇 번 나갔는지 세서 N+1 을 찾는다.
+ * 기록 중이 아니면(요청 밖, 다른 스레드) 아무것도 하지 않는다.
+ */
+public final class SqlStatementRecorder {
+
+    // 한 요청에서 모양을 이보다 많이 기억하지 않는다. 넘치는 모양은 statements 에만 더한다.
+    static final int MAX_SHAPES = 64;
+
+    private static final ThreadLocal<Recording> CURRENT = new ThreadLocal<>();
+
+    private SqlStatementRecorder() {
+    }
+
+    static Recording start() {
+        Recording recording = new Recording();
+        CURRENT.set(recording);
+        return recording;
+    }
+
+    static void stop() {
+        CURRENT.remove();
+    }
+
+    static final class Recording {
+
+        private int statements;
+        private long jdbcNanos;
+        private final Map<String, Integer> shapes = new HashMap<>();
+
+        void statement(String sql) {
+            this.statements++;
+            if (this.shapes.size() < MAX_SHAPES || this.shapes.containsKey(sql)) {
+                this.shapes.merge(sql, 1, Integer::sum);
+            }
+        }
+
+        int statements() {
+            return this.statements;
+        }
+
+        long jdbcNanos() {
+            return this.jdbcNanos;
+        }
+
+        Map<String, Integer> shapes() {
+            return this.shapes;
+        }
+
+        int maxRepeats() {
+            int max = 0;
+            for (int count : this.shapes.values()) {
+                max = Math.max(max, count);
+            }
+            return max;
+        }
+    }
+
+    /**
+     * hibernate.session_factory.statement_inspector 로 등록한다. SQL 은 바꾸지 않는다.
+     */
+    public static class Inspector implements StatementInspector {
+
+        @Override
+        public String inspect(String sql) {
+            Recording recording = CURRENT.get();
+            if (recording != null) {
+                recording.statement(sql);
+            }
+            return sql;
+        }
+    }
+
+    /**
+     * hibernate.session.events.auto 로 등록한다. 세션마다 하나씩 만들어지고 세션은 한 스레드에서만 쓰인다.
+     */
+    public static class JdbcTimer implements SessionEventListener {
+
+        private long startedAt;
+
+        @Override
+        public void jdbcExecuteStatementStart() {
+            this.startedAt = System.nanoTime();
+        }
+
+        @Override
+        public void jdbcExecuteStatementEnd() {
+            elapsed();
+        }
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            this.startedAt = System.nanoTime();
+        }
+
+        @Override
+        public void jdbcExecuteBatchEnd() {
+            elapsed();
+        }
+
+        private void elapsed() {
+            Recording recording = CURRENT.get();
+            if (recording != null) {
+                recording.jdbcNanos += System.nanoTime() - this.startedAt;
+            }
+        }
+    }
+}
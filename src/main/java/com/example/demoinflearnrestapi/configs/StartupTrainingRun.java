@@ -0,0 +1,33 @@
+package com.example.demoinflearnrestapi.configs;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * startup.exit-after-ready=true 면 준비되자마자 종료한다. mvn -Pfast-startup package 가 애플리케이션을 한 번 띄웠다 내리면서
+ * 시작할 때 읽는 클래스를 CDS 아카이브(-XX:ArchiveClassesAtExit)로 남길 때 쓴다.
+ * <p>
+ * AOT 처리된 빌드는 조건(@ConditionalOnProperty)을 빌드 때 정하므로 빈은 항상 만들고 속성은 실행할 때 본다.
+ */
+@Slf4j
+@Component
+public class StartupTrainingRun {
+
+    private final boolean exitAfterReady;
+
+    public StartupTrainingRun(@Value("${startup.exit-after-ready:false}") boolean exitAfterReady) {
+        this.exitAfterReady = exitAfterReady;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady(ApplicationReadyEvent event) {
+        if (this.exitAfterReady) {
+            log.info("Training run finished, exiting");
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.demoinflearnrestapi.configs;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.Executors;
+
+/**
+ * virtual-threads.enabled=true 일 때 요청마다 가상 스레드를 하나씩 쓴다. 리포지토리 호출도 요청 스레드에서 돌기 때문에
+ * JDBC 를 기다리는 동안 캐리어 스레드를 놓아준다.
+ * <p>
+ * 스레드 수가 더 이상 동시성을 막아주지 않으므로 커넥션을 빌리는 수를 세마포어로 제한하고, 고정(pinning)을 JFR 로 감시한다.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "virtual-threads", name = "enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadExecutorCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    @Bean
+    public static BeanPostProcessor concurrencyLimitingDataSourcePostProcessor(
+            ObjectProvider<VirtualThreadProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitingDataSource) {
+                    return bean;
+                }
+                VirtualThreadProperties virtualThreads = properties.getObject();
+                Integer permits = virtualThreads.getDbConcurrency();
+                if (permits == null) {
+                    permits = poolSize(dataSource);
+                }
+                return new ConcurrencyLimitingDataSource(dataSource, permits, virtualThreads.getDbAcquireTimeout());
+            }
+        };
+    }
+
+    // 다른 래퍼에 감싸여 있어도 Hikari 풀 크기를 찾는다. Hikari 가 아니면 Hikari 기본값과 같은 10.
+    private static int poolSize(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot inspect data source " + dataSource, e);
+        }
+        return 10;
+    }
+
+    @Bean
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(VirtualThreadProperties properties) {
+        return new VirtualThreadPinningMonitor(properties.getPinnedThreshold());
+    }
+}
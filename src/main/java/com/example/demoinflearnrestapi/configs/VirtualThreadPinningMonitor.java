@@ -0,0 +1,72 @@
+package com.example.demoinflearnrestapi.configs;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * JFR 의 jdk.VirtualThreadPinned 이벤트를 받아서 synchronized 안에서 블로킹한 자리를 경고로 남긴다.
+ * 고정된 동안은 캐리어 스레드 하나를 통째로 잡고 있으므로 자주 보이면 그 자리를 ReentrantLock 으로 바꿔야 한다.
+ */
+@Slf4j
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final int MAX_FRAMES = 40;
+
+    private final Duration threshold;
+    private final LongAdder pinnedEvents = new LongAdder();
+    private volatile RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(Duration threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void start() {
+        RecordingStream stream = new RecordingStream();
+        stream.enable("jdk.VirtualThreadPinned").withThreshold(this.threshold).withStackTrace();
+        stream.onEvent("jdk.VirtualThreadPinned", this::onPinned);
+        stream.startAsync();
+        this.recordingStream = stream;
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream stream = this.recordingStream;
+        if (stream != null) {
+            stream.close();
+            this.recordingStream = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return this.recordingStream != null;
+    }
+
+    public long pinnedEvents() {
+        return this.pinnedEvents.sum();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        this.pinnedEvents.increment();
+        if (!log.isWarnEnabled()) {
+            return;
+        }
+        String stackTrace = event.getStackTrace() == null ? "(no stack trace)" : event.getStackTrace().getFrames().stream()
+                .limit(MAX_FRAMES)
+                .map(VirtualThreadPinningMonitor::format)
+                .collect(Collectors.joining("\n\tat ", "\tat ", ""));
+        log.warn("Virtual thread pinned for {}ms\n{}", event.getDuration().toMillis(), stackTrace);
+    }
+
+    private static String format(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
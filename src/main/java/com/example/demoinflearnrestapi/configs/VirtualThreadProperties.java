@@ -0,0 +1,34 @@
+package com.example.demoinflearnrestapi.configs;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "virtual-threads")
+@Getter @Setter
+public class VirtualThreadProperties {
+
+    /**
+     * 요청 처리를 Tomcat 스레드 풀 대신 가상 스레드에서 한다.
+     */
+    private boolean enabled = false;
+
+    /**
+     * 동시에 커넥션을 빌려갈 수 있는 수. 비워두면 커넥션 풀 크기를 쓴다.
+     */
+    private Integer dbConcurrency;
+
+    /**
+     * 커넥션 차례를 기다리는 최대 시간. 넘으면 SQLTransientConnectionException.
+     */
+    private Duration dbAcquireTimeout = Duration.ofSeconds(30);
+
+    /**
+     * 이보다 오래 캐리어 스레드에 고정(pinned)된 가상 스레드를 스택과 함께 경고로 남긴다.
+     */
+    private Duration pinnedThreshold = Duration.ofMillis(20);
+}
@@ -0,0 +1,24 @@
+package com.example.demoinflearnrestapi.events;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Builder @AllArgsConstructor @NoArgsConstructor
+@Getter @Setter @EqualsAndHashCode(of = "id")
+@Entity
+// 이벤트별 참가 수를 센다. (EnrollmentRepository.findCapacity)
+@Table(indexes = @Index(name = "idx_enrollment_event", columnList = "event_id"))
+public class Enrollment {
+
+    @Id @GeneratedValue
+    private Integer id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    private Event event;
+
+    private String enrolledBy; // 로그인하지 않았으면 null
+
+    private LocalDateTime enrolledAt;
+}
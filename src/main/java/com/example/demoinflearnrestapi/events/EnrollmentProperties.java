@@ -0,0 +1,36 @@
+package com.example.demoinflearnrestapi.events;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "events.enrollment")
+@Getter @Setter
+public class EnrollmentProperties {
+
+    /**
+     * 저장을 기다리는 참가 요청 수. 넘치면 자리를 돌려주고 503 으로 거절한다. 대기열에 넣지 않았으므로 다시 보내도 된다.
+     */
+    private int queueCapacity = 10_000;
+
+    /**
+     * 요청 스레드가 저장(커밋)을 기다리는 최대 시간. 넘기면 202 와 상태 링크를 돌려주고, 저장은 뒤에 끝난다.
+     */
+    private Duration timeout = Duration.ofSeconds(10);
+
+    /**
+     * 거절할 때 Retry-After 로 보내는 시간.
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    /**
+     * 202 로 받은 참가의 상태를 조회할 수 있는 기간과 개수. 지나면 상태 조회는 404 다.
+     */
+    private Duration statusTtl = Duration.ofMinutes(10);
+
+    private long maximumStatuses = 100_000;
+}
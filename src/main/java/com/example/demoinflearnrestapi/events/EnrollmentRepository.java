@@ -0,0 +1,26 @@
+package com.example.demoinflearnrestapi.events;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public interface EnrollmentRepository extends JpaRepository<Enrollment, Integer> {
+
+    /**
+     * 참가 가능 여부를 판단할 이벤트 상태와 지금까지의 참가 수. 쿼리 하나로 읽는다.
+     */
+    @Transactional(readOnly = true)
+    @Query("""
+            select new com.example.demoinflearnrestapi.events.EventSeats$Capacity(
+                e.eventStatus, e.limitOfEnrollment, e.closeEnrollmentDateTime,
+                (select count(en) from Enrollment en where en.event.id = e.id))
+            from Event e where e.id = :eventId
+            """)
+    Optional<EventSeats.Capacity> findCapacity(Integer eventId);
+
+    @Transactional(readOnly = true)
+    @Query("select count(en) from Enrollment en where en.event.id = :eventId")
+    long countByEventId(Integer eventId);
+}
@@ -0,0 +1,250 @@
+package com.example.demoinflearnrestapi.events;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+/**
+ * 이벤트 참가. 자리는 EventSeats 에서 가져가고, 저장은 전용 스레드 하나가 그동안 쌓인 참가를 batch_size 만큼씩 한 트랜잭션으로 한다.
+ * 요청 스레드는 자기 참가가 커밋될 때까지 기다렸다가 응답하므로 201 을 받은 참가는 저장된 것이다. (group commit)
+ * 커밋한 참가는 EventSeats 에 알리고, 저장하지 못한 참가는 자리를 돌려준다.
+ * <p>
+ * timeout 안에 커밋되지 않은 참가는 대기열에 남아 있어서 뒤늦게 저장될 수 있다. 다시 보내면 자리를 하나 더 가져가므로
+ * 거절하지 않고 ACCEPTED 와 상태 id 를 돌려주고, 결과는 status 로 조회한다.
+ */
+@Slf4j
+@Service
+public class EnrollmentService implements SmartLifecycle {
+
+    // 단계가 높은 것부터 멈춘다. Boot 3.1 의 웹 서버는 WebServerGracefulShutdownLifecycle(Integer.MAX_VALUE - 1024),
+    // WebServerStartStopLifecycle(Integer.MAX_VALUE - 2048) 단계라서 그보다 낮게 두면 요청을 다 받은 뒤에 멈춘다.
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+    private static final long POLL_MILLIS = 100;
+
+    private final EventSeats eventSeats;
+    private final EnrollmentRepository enrollmentRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final EnrollmentProperties properties;
+    private final Timer batches;
+    private final int batchSize;
+
+    private final BlockingQueue<Pending> queue;
+    private final Cache<String, Pending> accepted;
+    private volatile boolean accepting = true;
+    private volatile Thread writer;
+
+    public EnrollmentService(EventSeats eventSeats,
+                             EnrollmentRepository enrollmentRepository,
+                             EntityManager entityManager,
+                             PlatformTransactionManager transactionManager,
+                             EnrollmentProperties properties,
+                             MeterRegistry meterRegistry,
+                             @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+        this.eventSeats = eventSeats;
+        this.enrollmentRepository = enrollmentRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.accepted = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumStatuses())
+                .expireAfterWrite(properties.getStatusTtl())
+                .build();
+        this.batches = Timer.builder("events.enrollment.commit")
+                .description("Enrollment group commits")
+                .register(meterRegistry);
+    }
+
+    public enum Status {
+        ENROLLED, ACCEPTED, FULL, CLOSED, NOT_FOUND, BUSY
+    }
+
+    /**
+     * enrollment 는 ENROLLED 일 때, pending 은 ACCEPTED 일 때만 있다.
+     */
+    public record Result(Status status, EnrollmentView enrollment, EnrollmentStatus pending) {
+    }
+
+    public Result enroll(Integer eventId, String enrolledBy) {
+        EventSeats.Take take = this.eventSeats.take(eventId);
+        if (take != EventSeats.Take.TAKEN) {
+            return new Result(switch (take) {
+                case FULL -> Status.FULL;
+                case CLOSED -> Status.CLOSED;
+                default -> Status.NOT_FOUND;
+            }, null, null);
+        }
+
+        Pending pending = new Pending(eventId, enrolledBy, LocalDateTime.now(), new CompletableFuture<>());
+        if (!this.accepting || !this.queue.offer(pending)) {
+            this.eventSeats.release(eventId);
+            return new Result(Status.BUSY, null, null);
+        }
+        try {
+            Integer id = pending.id().get(this.properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            return new Result(Status.ENROLLED, pending.view(id), null);
+        } catch (TimeoutException e) {
+            // 저장은 아직 진행 중일 수 있다. 자리는 저장이 실패할 때 writer 가 돌려준다.
+            return accept(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return accept(pending);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Cannot persist enrollment for event " + eventId, e.getCause());
+        }
+    }
+
+    /**
+     * ACCEPTED 로 돌려준 참가의 상태. 모르는 id 거나 status-ttl 이 지났으면 empty.
+     */
+    public Optional<EnrollmentStatus> status(String id) {
+        return Optional.ofNullable(this.accepted.getIfPresent(id)).map(pending -> statusOf(id, pending));
+    }
+
+    private Result accept(Pending pending) {
+        String id = UUID.randomUUID().toString();
+        this.accepted.put(id, pending);
+        return new Result(Status.ACCEPTED, null, statusOf(id, pending));
+    }
+
+    private static EnrollmentStatus statusOf(String id, Pending pending) {
+        CompletableFuture<Integer> future = pending.id();
+        if (!future.isDone()) {
+            return new EnrollmentStatus(id, pending.eventId(), EnrollmentStatus.Status.PENDING, null, null);
+        }
+        try {
+            return new EnrollmentStatus(id, pending.eventId(), EnrollmentStatus.Status.ENROLLED,
+                    pending.view(future.join()), null);
+        } catch (CompletionException | CancellationException e) {
+            return new EnrollmentStatus(id, pending.eventId(), EnrollmentStatus.Status.FAILED, null,
+                    NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+        }
+    }
+
+    public long retryAfterSeconds() {
+        return Math.max(1, this.properties.getRetryAfter().toSeconds());
+    }
+
+    @Override
+    public void start() {
+        this.accepting = true;
+        Thread writer = new Thread(this::drain, "enrollment-writer");
+        writer.setDaemon(true);
+        writer.start();
+        this.writer = writer;
+    }
+
+    /**
+     * 새 참가를 막고 대기열에 남은 참가를 저장한 뒤에 멈춘다.
+     */
+    @Override
+    public void stop() {
+        this.accepting = false;
+        Thread writer = this.writer;
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.join(this.properties.getTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            log.warn("Enrollment writer stopped with {} enrollments not persisted", this.queue.size());
+            writer.interrupt();
+            // 상태 조회가 PENDING 으로 남지 않게 저장하지 못한 참가를 실패로 끝낸다.
+            List<Pending> abandoned = new ArrayList<>();
+            this.queue.drainTo(abandoned);
+            abandoned.forEach(pending -> {
+                this.eventSeats.release(pending.eventId());
+                pending.id().completeExceptionally(new IllegalStateException("Enrollment service stopped before persisting"));
+            });
+        }
+        this.writer = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return this.writer != null;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void drain() {
+        List<Pending> batch = new ArrayList<>(this.batchSize);
+        while (this.accepting || !this.queue.isEmpty()) {
+            Pending first;
+            try {
+                first = this.queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (first == null) {
+                continue;
+            }
+            batch.add(first);
+            this.queue.drainTo(batch, this.batchSize - 1);
+            this.batches.record(() -> write(batch));
+            batch.clear();
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        List<Enrollment> enrollments;
+        try {
+            enrollments = this.transactionTemplate.execute(transaction -> this.enrollmentRepository.saveAll(
+                    batch.stream().map(this::toEnrollment).toList()));
+        } catch (RuntimeException e) {
+            if (batch.size() > 1) {
+                // 묶음이 실패하면 하나씩 다시 저장해서 문제가 있는 참가만 실패시킨다.
+                batch.forEach(pending -> write(List.of(pending)));
+                return;
+            }
+            Pending pending = batch.get(0);
+            this.eventSeats.release(pending.eventId());
+            pending.id().completeExceptionally(e);
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            Pending pending = batch.get(i);
+            this.eventSeats.committed(pending.eventId());
+            pending.id().complete(enrollments.get(i).getId());
+        }
+    }
+
+    private Enrollment toEnrollment(Pending pending) {
+        return Enrollment.builder()
+                .event(this.entityManager.getReference(Event.class, pending.eventId()))
+                .enrolledBy(pending.enrolledBy())
+                .enrolledAt(pending.enrolledAt())
+                .build();
+    }
+
+    private record Pending(Integer eventId, String enrolledBy, LocalDateTime enrolledAt, CompletableFuture<Integer> id) {
+
+        EnrollmentView view(Integer id) {
+            return new EnrollmentView(id, this.eventId, this.enrolledBy, this.enrolledAt);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.demoinflearnrestapi.events;
+
+/**
+ * 저장을 기다리다 제한 시간을 넘긴 참가의 처리 상태. enrollment 는 ENROLLED 일 때, error 는 FAILED 일 때만 있다.
+ */
+public record EnrollmentStatus(String id, Integer eventId, Status status, EnrollmentView enrollment, String error) {
+
+    public enum Status {
+        PENDING, ENROLLED, FAILED
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.demoinflearnrestapi.events;
+
+import java.time.LocalDateTime;
+
+/**
+ * 참가 응답. enrolledBy 는 로그인하지 않았으면 null.
+ */
+public record EnrollmentView(Integer id, Integer eventId, String enrolledBy, LocalDateTime enrolledAt) {
+}
@@ -2,18 +2,33 @@ package com.example.demoinflearnrestapi.events;
 
 import com.example.demoinflearnrestapi.accounts.Account;
 import com.example.demoinflearnrestapi.accounts.AccountRole;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 
 @Builder @AllArgsConstructor @NoArgsConstructor
 @Getter @Setter @EqualsAndHashCode(of = "id")
 @Entity
+@DynamicUpdate // 바뀐 컬럼만 UPDATE 한다. 한두 필드만 바꾸는 PATCH 가 행 전체를 다시 쓰지 않는다.
+// 목록 조회 필터(EventSearch) 용. 같음 조건 컬럼을 앞에, 범위 조건 컬럼을 뒤에 둔다.
+@Table(indexes = {
+        @Index(name = "idx_event_status_begin_event", columnList = "eventStatus, beginEventDateTime"),
+        @Index(name = "idx_event_status_base_price", columnList = "eventStatus, basePrice"),
+        @Index(name = "idx_event_offline_free_begin_event", columnList = "offline, free, beginEventDateTime"),
+        @Index(name = "idx_event_begin_event", columnList = "beginEventDateTime"),
+        @Index(name = "idx_event_base_price", columnList = "basePrice")
+})
 public class Event {
 
     @Id @GeneratedValue
     private Integer id;
+
+    @Version @JsonIgnore // 응답 본문 대신 ETag 로 내보낸다.
+    private Integer version;
+
     private String name;
     private String description;
     private LocalDateTime beginEnrollmentDateTime;
@@ -30,7 +45,7 @@ public class Event {
     @Enumerated(value = EnumType.STRING) // Enum 타입을 스트링으로 저장
     private EventStatus eventStatus = EventStatus.DRAFT;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY) // 필요한 조회에서만 EventRepository 의 엔티티 그래프로 같이 읽는다.
     private Account manager;
 
 
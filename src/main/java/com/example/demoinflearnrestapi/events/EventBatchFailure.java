@@ -0,0 +1,10 @@
+package com.example.demoinflearnrestapi.events;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import org.springframework.validation.Errors;
+
+/**
+ * 배열에서 index 번째(0 부터) 항목의 검증 오류. 오류는 ErrorsSerializer 형식({@code "errors": [...]})으로 나간다.
+ */
+public record EventBatchFailure(int index, @JsonUnwrapped Errors errors) {
+}
@@ -0,0 +1,9 @@
+package com.example.demoinflearnrestapi.events;
+
+import java.util.List;
+
+/**
+ * 배치 생성 결과. created 는 저장된 이벤트 id, failures 는 검증에 실패한 항목.
+ */
+public record EventBatchResult(List<Integer> created, List<EventBatchFailure> failures) {
+}
@@ -0,0 +1,124 @@
+package com.example.demoinflearnrestapi.events;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.Errors;
+import org.springframework.validation.MapBindingResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * EventDto 배열을 스트림으로 읽으면서 검증하고, 통과한 이벤트를 chunk 단위로 저장한다.
+ * chunk 크기는 hibernate.jdbc.batch_size 와 맞춰서 chunk 하나가 INSERT 배치 하나로 나가게 한다.
+ * 저장한 이벤트는 chunk 마다 영속성 컨텍스트에서 내리고, 변경 알림도 id 만 모아서 EventsCreated 로 한번 보낸다.
+ */
+@Service
+public class EventBatchService {
+
+    private final ObjectReader eventDtoReader;
+    private final EventValidator eventValidator;
+    private final EventMapper eventMapper;
+    private final EventMetrics eventMetrics;
+    private final EventRepository eventRepository;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+
+    public EventBatchService(ObjectMapper objectMapper,
+                             EventValidator eventValidator,
+                             EventMapper eventMapper,
+                             EventMetrics eventMetrics,
+                             EventRepository eventRepository,
+                             EntityManager entityManager,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int chunkSize) {
+        this.eventDtoReader = objectMapper.readerFor(EventDto.class);
+        this.eventValidator = eventValidator;
+        this.eventMapper = eventMapper;
+        this.eventMetrics = eventMetrics;
+        this.eventRepository = eventRepository;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * 잘못된 항목(null 포함)은 건너뛰고 배열 안의 위치와 함께 돌려준다. JSON 자체가 깨졌으면 전체를 롤백한다.
+     */
+    @Transactional(rollbackFor = IOException.class)
+    public EventBatchResult createEvents(InputStream body) throws IOException {
+        List<Integer> created = new ArrayList<>();
+        List<EventBatchFailure> failures = new ArrayList<>();
+        List<Event> chunk = new ArrayList<>(this.chunkSize);
+
+        try (JsonParser parser = this.eventDtoReader.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw MismatchedInputException.from(parser, EventDto[].class, "Expected an array of events");
+            }
+            for (int index = 0; nextElement(parser); index++) {
+                // null 은 EventDto 로 읽을 수 없으므로 배열 전체를 깨뜨리지 않고 그 위치의 오류로 돌려준다.
+                EventDto eventDto = parser.currentToken() == JsonToken.VALUE_NULL ? null
+                        : this.eventDtoReader.readValue(parser);
+                Errors errors = eventDto == null ? nullElement() : this.eventValidator.validate(eventDto);
+                if (errors != null) {
+                    this.eventMetrics.validationFailed(errors);
+                    failures.add(new EventBatchFailure(index, errors));
+                    continue;
+                }
+
+                Event event = this.eventMetrics.getToEvent().record(() -> this.eventMapper.toEvent(eventDto));
+                event.update();
+                chunk.add(event);
+                if (chunk.size() == this.chunkSize) {
+                    flush(chunk, created);
+                }
+            }
+        }
+        flush(chunk, created);
+        if (!created.isEmpty()) {
+            this.eventPublisher.publishEvent(new EventsCreated(List.copyOf(created)));
+        }
+
+        return new EventBatchResult(created, failures);
+    }
+
+    private static boolean nextElement(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+            throw MismatchedInputException.from(parser, EventDto[].class, "Unexpected end of the event array");
+        }
+        return token != JsonToken.END_ARRAY;
+    }
+
+    private static Errors nullElement() {
+        Errors errors = new MapBindingResult(Map.of(), EventValidator.OBJECT_NAME);
+        errors.reject("NotNull", "must not be null");
+        return errors;
+    }
+
+    private void flush(List<Event> chunk, List<Integer> created) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        this.eventRepository.saveAll(chunk);
+        this.entityManager.flush();
+        for (Event event : chunk) {
+            created.add(event.getId());
+        }
+        // 저장한 엔티티를 영속성 컨텍스트에 쌓아두지 않는다.
+        this.entityManager.clear();
+        chunk.clear();
+    }
+}
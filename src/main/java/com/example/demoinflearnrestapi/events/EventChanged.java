@@ -0,0 +1,8 @@
+package com.example.demoinflearnrestapi.events;
+
+/**
+ * 이벤트가 생성되거나 수정되었을 때 발행한다. 리스너는 커밋 이후에 받도록
+ * {@code @TransactionalEventListener(fallbackExecution = true)} 로 등록한다.
+ */
+public record EventChanged(Event event) {
+}
@@ -0,0 +1,128 @@
+package com.example.demoinflearnrestapi.events;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.PropertyAccessor;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * 커서(keyset) 페이징의 {@code after} 토큰. 마지막으로 본 이벤트의 정렬 키와 id 를 JSON 으로 담아 base64url 로 감싼다.
+ * 클라이언트는 토큰 내용을 해석하지 말고 next 링크를 그대로 따라가면 된다.
+ */
+@Component
+@RequiredArgsConstructor
+public class EventCursor {
+
+    // 커서 정렬에 쓸 수 있는 프로퍼티와 토큰을 읽을 때 되돌릴 타입. 모두 EventDto 검증으로 null 이 아니다.
+    static final Map<String, Class<?>> SORTABLE_PROPERTIES = Map.of(
+            "id", Integer.class,
+            "name", String.class,
+            "beginEnrollmentDateTime", LocalDateTime.class,
+            "closeEnrollmentDateTime", LocalDateTime.class,
+            "beginEventDateTime", LocalDateTime.class,
+            "endEventDateTime", LocalDateTime.class,
+            "basePrice", Integer.class,
+            "maxPrice", Integer.class,
+            "limitOfEnrollment", Integer.class);
+
+    private static final TypeReference<LinkedHashMap<String, Object>> KEYS_TYPE = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 요청한 정렬 뒤에 id 를 붙여서 순서가 항상 유일하게 정해지도록 한다.
+     *
+     * @throws IllegalArgumentException 커서 정렬에 쓸 수 없는 프로퍼티가 있는 경우
+     */
+    public Sort seekSort(Sort sort) {
+        for (Sort.Order order : sort) {
+            if (!SORTABLE_PROPERTIES.containsKey(order.getProperty())) {
+                throw new IllegalArgumentException("Unsupported sort for cursor paging: " + order.getProperty());
+            }
+        }
+        return sort.getOrderFor("id") == null ? sort.and(Sort.by("id")) : sort;
+    }
+
+    public String encode(EventView last, Sort seekSort) {
+        // record 는 getter 가 없으므로 필드로 읽는다.
+        PropertyAccessor event = PropertyAccessorFactory.forDirectFieldAccess(last);
+        Map<String, Object> keys = new LinkedHashMap<>();
+        seekSort.forEach(order -> keys.put(order.getProperty(), event.getPropertyValue(order.getProperty())));
+        try {
+            byte[] json = this.objectMapper.writeValueAsBytes(keys);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot encode cursor " + keys, e);
+        }
+    }
+
+    /**
+     * 토큰을 읽어서 seek 조건으로 바꾼다. 빈 토큰은 첫 페이지(조건 없음).
+     *
+     * @throws IllegalArgumentException 토큰이 깨졌거나 정렬 조건과 맞지 않는 경우
+     */
+    public Specification<Event> decode(String token, Sort seekSort) {
+        if (token.isEmpty()) {
+            return Specification.where(null);
+        }
+
+        Map<String, Object> keys;
+        try {
+            keys = this.objectMapper.readValue(Base64.getUrlDecoder().decode(token), KEYS_TYPE);
+        } catch (IllegalArgumentException | IOException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+
+        Set<String> expected = new HashSet<>();
+        seekSort.forEach(order -> expected.add(order.getProperty()));
+        if (keys == null || !keys.keySet().equals(expected)) {
+            throw new IllegalArgumentException("Cursor does not match sort " + seekSort);
+        }
+
+        Map<String, Comparable<Object>> typedKeys = new HashMap<>();
+        keys.forEach((property, value) -> {
+            if (value == null) {
+                throw new IllegalArgumentException("Cursor key " + property + " is null");
+            }
+            typedKeys.put(property, comparable(this.objectMapper.convertValue(value, SORTABLE_PROPERTIES.get(property))));
+        });
+        return after(seekSort, typedKeys);
+    }
+
+    /**
+     * (k1, k2, ..., id) 가 커서 위치보다 뒤에 있는 행.
+     * {@code k1 > v1 or (k1 = v1 and k2 > v2) or ...} 형태라 정렬 컬럼 인덱스를 그대로 탈 수 있다.
+     */
+    private static Specification<Event> after(Sort seekSort, Map<String, Comparable<Object>> keys) {
+        return (root, query, cb) -> {
+            List<Predicate> beyond = new ArrayList<>();
+            List<Predicate> equalSoFar = new ArrayList<>();
+            for (Sort.Order order : seekSort) {
+                Path<Comparable<Object>> path = root.get(order.getProperty());
+                Comparable<Object> value = keys.get(order.getProperty());
+
+                List<Predicate> branch = new ArrayList<>(equalSoFar);
+                branch.add(order.isAscending() ? cb.greaterThan(path, value) : cb.lessThan(path, value));
+                beyond.add(cb.and(branch.toArray(Predicate[]::new)));
+                equalSoFar.add(cb.equal(path, value));
+            }
+            return cb.or(beyond.toArray(Predicate[]::new));
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> comparable(Object value) {
+        return (Comparable<Object>) value;
+    }
+}
@@ -7,6 +7,7 @@ import lombok.*;
 
 import java.time.LocalDateTime;
 
+// 제약 애너테이션은 API 문서용이다. 실제 검사는 EventValidator 가 같은 코드로 한다.
 @Builder @NoArgsConstructor @AllArgsConstructor
 @Data
 public class EventDto {
@@ -0,0 +1,48 @@
+package com.example.demoinflearnrestapi.events;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * 모든 이벤트를 한 줄에 하나씩 JSON 으로 쓴다 (NDJSON). DB 커서에서 읽는 대로 바로 쓰기 때문에
+ * 행 수와 관계없이 fetch size 만큼의 행과 출력 버퍼만 메모리에 있다.
+ * EventView 는 엔티티가 아니라서 영속성 컨텍스트에 쌓이는 것도 없다.
+ */
+@Service
+@RequiredArgsConstructor
+public class EventExportService {
+
+    private final EventRepository eventRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @return 쓴 이벤트 수
+     */
+    @Transactional(readOnly = true)
+    public long export(OutputStream out) throws IOException {
+        // 행마다 flush 하지 않고 출력 스트림의 버퍼에 맡긴다.
+        ObjectWriter writer = this.objectMapper.writerFor(EventView.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long count = 0;
+        try (Stream<EventView> events = this.eventRepository.streamAllViews();
+             JsonGenerator generator = this.objectMapper.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            for (Iterator<EventView> it = events.iterator(); it.hasNext(); ) {
+                writer.writeValue(generator, it.next());
+                generator.writeRaw('\n');
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.demoinflearnrestapi.events;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 검증을 통과한 이벤트를 크기가 정해진 대기열에 넣어두고, 전용 스레드 하나가 batch_size 만큼씩 묶어서 한 트랜잭션으로 저장한다.
+ * 요청 스레드는 커넥션을 잡지 않으므로 생성 요청이 몰려도 커넥션 풀을 쓰는 건 이 스레드 하나다.
+ * 대기열이 차면 기다리지 않고 거절한다. 묶음 저장이 실패하면 하나씩 다시 저장해서 문제가 있는 이벤트만 FAILED 로 남긴다.
+ * <p>
+ * 종료할 때는 웹 서버가 멈춘 다음에 새 요청을 막고, 대기열에 남은 이벤트를 shutdown-timeout 까지 저장한다.
+ * 그때까지 저장하지 못한 이벤트는 상태 조회가 PENDING 으로 남지 않게 FAILED 로 남긴다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "events.ingestion", name = "enabled", havingValue = "true")
+public class EventIngestion implements SmartLifecycle {
+
+    // 단계가 높은 것부터 멈춘다. Boot 3.1 의 웹 서버는 WebServerGracefulShutdownLifecycle(Integer.MAX_VALUE - 1024),
+    // WebServerStartStopLifecycle(Integer.MAX_VALUE - 2048) 단계라서 그보다 낮게 두면 요청을 다 받은 뒤에 멈춘다.
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+    private static final long POLL_MILLIS = 100;
+
+    private final EventIngestionProperties properties;
+    private final EventRepository eventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    private final BlockingQueue<Pending> queue;
+    private final Cache<String, EventIngestionStatus> statuses;
+    private final Counter persisted;
+    private final Counter failed;
+    private final Counter rejected;
+
+    private volatile boolean accepting = true;
+    private volatile Thread writer;
+
+    public EventIngestion(EventIngestionProperties properties,
+                          EventRepository eventRepository,
+                          PlatformTransactionManager transactionManager,
+                          ApplicationEventPublisher eventPublisher,
+                          MeterRegistry meterRegistry,
+                          @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+        this.properties = properties;
+        this.eventRepository = eventRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumStatuses())
+                .expireAfterWrite(properties.getStatusTtl())
+                .build();
+
+        Gauge.builder("events.ingestion.pending", this.queue, BlockingQueue::size)
+                .description("Events waiting to be persisted")
+                .register(meterRegistry);
+        this.persisted = ingestionCounter(meterRegistry, "persisted");
+        this.failed = ingestionCounter(meterRegistry, "failed");
+        this.rejected = ingestionCounter(meterRegistry, "rejected");
+    }
+
+    /**
+     * 대기열에 넣고 PENDING 상태를 돌려준다. 대기열이 찼거나 종료 중이면 empty.
+     */
+    public Optional<EventIngestionStatus> submit(Event event) {
+        if (!this.accepting) {
+            this.rejected.increment();
+            return Optional.empty();
+        }
+        // 저장이 먼저 끝나도 PENDING 으로 덮어쓰지 않도록 대기열에 넣기 전에 상태를 남긴다.
+        EventIngestionStatus status = EventIngestionStatus.pending(UUID.randomUUID().toString());
+        this.statuses.put(status.id(), status);
+        if (!this.queue.offer(new Pending(status, event))) {
+            this.statuses.invalidate(status.id());
+            this.rejected.increment();
+            return Optional.empty();
+        }
+        return Optional.of(status);
+    }
+
+    public Optional<EventIngestionStatus> status(String id) {
+        return Optional.ofNullable(this.statuses.getIfPresent(id));
+    }
+
+    public int pending() {
+        return this.queue.size();
+    }
+
+    public long retryAfterSeconds() {
+        return Math.max(1, this.properties.getRetryAfter().toSeconds());
+    }
+
+    @Override
+    public void start() {
+        this.accepting = true;
+        Thread writer = new Thread(this::drain, "event-ingestion");
+        writer.setDaemon(true);
+        writer.start();
+        this.writer = writer;
+    }
+
+    @Override
+    public void stop() {
+        this.accepting = false;
+        Thread writer = this.writer;
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.join(this.properties.getShutdownTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            log.warn("Event ingestion stopped with {} events not persisted", this.queue.size());
+            writer.interrupt();
+            List<Pending> abandoned = new ArrayList<>();
+            this.queue.drainTo(abandoned);
+            abandoned.forEach(pending -> this.statuses.put(pending.status().id(),
+                    pending.status().failed("Event ingestion stopped before persisting")));
+            this.failed.increment(abandoned.size());
+        }
+        this.writer = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return this.writer != null;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void drain() {
+        List<Pending> batch = new ArrayList<>(this.batchSize);
+        while (this.accepting || !this.queue.isEmpty()) {
+            Pending first;
+            try {
+                first = this.queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                // stop 이 shutdown-timeout 을 넘겼다.
+                return;
+            }
+            if (first == null) {
+                continue;
+            }
+            batch.add(first);
+            this.queue.drainTo(batch, this.batchSize - 1);
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        try {
+            this.transactionTemplate.executeWithoutResult(transaction -> {
+                this.eventRepository.saveAll(batch.stream().map(Pending::event).toList());
+                batch.forEach(pending -> this.eventPublisher.publishEvent(new EventChanged(pending.event())));
+            });
+        } catch (RuntimeException e) {
+            if (batch.size() > 1) {
+                batch.forEach(pending -> write(List.of(pending.reset())));
+                return;
+            }
+            Pending pending = batch.get(0);
+            log.warn("Cannot persist ingested event {}", pending.status().id(), e);
+            this.statuses.put(pending.status().id(),
+                    pending.status().failed(NestedExceptionUtils.getMostSpecificCause(e).getMessage()));
+            this.failed.increment();
+            return;
+        }
+        for (Pending pending : batch) {
+            this.statuses.put(pending.status().id(), pending.status().persisted(pending.event().getId()));
+        }
+        this.persisted.increment(batch.size());
+    }
+
+    private static Counter ingestionCounter(MeterRegistry registry, String result) {
+        return Counter.builder("events.ingestion")
+                .description("Asynchronously ingested events")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private record Pending(EventIngestionStatus status, Event event) {
+
+        /**
+         * 롤백된 트랜잭션에서 받은 id 와 버전을 지워서 다시 새 이벤트로 저장되게 한다.
+         */
+        Pending reset() {
+            this.event.setId(null);
+            this.event.setVersion(null);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.demoinflearnrestapi.events;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "events.ingestion")
+@Getter @Setter
+public class EventIngestionProperties {
+
+    /**
+     * true 면 Prefer: respond-async 로 온 이벤트 생성 요청을 대기열에 넣고 202 로 바로 응답한다. (EventIngestion)
+     */
+    private boolean enabled = false;
+
+    /**
+     * 아직 저장하지 않은 이벤트를 몇 개까지 들고 있을지. 넘치면 429 로 거절한다.
+     */
+    private int queueCapacity = 10_000;
+
+    /**
+     * 거절할 때 Retry-After 로 보내는 시간.
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    /**
+     * 종료할 때 대기열에 남은 이벤트를 저장하며 기다리는 최대 시간.
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(30);
+
+    /**
+     * 상태를 조회할 수 있는 기간과 개수. 지나면 상태 조회는 404 다.
+     */
+    private Duration statusTtl = Duration.ofMinutes(10);
+
+    private long maximumStatuses = 100_000;
+}
@@ -0,0 +1,23 @@
+package com.example.demoinflearnrestapi.events;
+
+/**
+ * 비동기로 받은 이벤트 생성 요청의 처리 상태. eventId 는 PERSISTED 일 때, error 는 FAILED 일 때만 있다.
+ */
+public record EventIngestionStatus(String id, Status status, Integer eventId, String error) {
+
+    public enum Status {
+        PENDING, PERSISTED, FAILED
+    }
+
+    static EventIngestionStatus pending(String id) {
+        return new EventIngestionStatus(id, Status.PENDING, null, null);
+    }
+
+    EventIngestionStatus persisted(Integer eventId) {
+        return new EventIngestionStatus(this.id, Status.PERSISTED, eventId, null);
+    }
+
+    EventIngestionStatus failed(String error) {
+        return new EventIngestionStatus(this.id, Status.FAILED, null, error);
+    }
+}
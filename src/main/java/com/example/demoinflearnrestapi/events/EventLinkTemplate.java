@@ -0,0 +1,52 @@
+package com.example.demoinflearnrestapi.events;
+
+import lombok.Getter;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+
+import java.net.URI;
+
+/**
+ * base URL 하나에 대해 미리 만들어 둔 이벤트 링크들. {@link EventLinks#current()} 로 얻는다.
+ */
+@Getter
+public class EventLinkTemplate {
+
+    private final String baseUrl;
+    private final String eventsHref;
+    private final Link queryEvents;
+    private final Link events;
+    private final Link index;
+
+    EventLinkTemplate(String baseUrl, String eventsHref, Link index) {
+        this.baseUrl = baseUrl;
+        this.eventsHref = eventsHref;
+        this.queryEvents = Link.of(eventsHref, "query-events");
+        this.events = Link.of(eventsHref, "events");
+        this.index = index;
+    }
+
+    public String eventHref(Integer id) {
+        return this.eventsHref + "/" + id;
+    }
+
+    public URI eventUri(Integer id) {
+        return URI.create(eventHref(id));
+    }
+
+    public Link self(Integer id) {
+        return Link.of(eventHref(id), IanaLinkRelations.SELF);
+    }
+
+    public Link updateEvent(Integer id) {
+        return Link.of(eventHref(id), "update-event");
+    }
+
+    public String ingestionHref(String id) {
+        return this.eventsHref + "/ingestions/" + id;
+    }
+
+    public String enrollmentStatusHref(Integer eventId, String id) {
+        return eventHref(eventId) + "/enrollments/pending/" + id;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.demoinflearnrestapi.events;
+
+import com.example.demoinflearnrestapi.events.controller.EventController;
+import com.example.demoinflearnrestapi.events.controller.IndexController;
+import org.springframework.hateoas.Link;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+/**
+ * 이벤트 응답에 들어가는 링크를 만든다.
+ * linkTo / methodOn 은 base URL(scheme, host, context path) 마다 한번만 호출하고, 이후에는 템플릿에 id 만 붙인다.
+ */
+@Component
+public class EventLinks {
+
+    public static final Link CREATE_PROFILE = Link.of("/docs/index.html#resources-events-create").withRel("profile");
+    public static final Link LIST_PROFILE = Link.of("/docs/index.html#resources-events-list").withRel("profile");
+    public static final Link GET_PROFILE = Link.of("/docs/index.html#resources-event-list").withRel("profile");
+    public static final Link UPDATE_PROFILE = Link.of("/docs/index.html#resources-events-update").withRel("profile");
+    public static final Link SEARCH_PROFILE = Link.of("/docs/index.html#resources-events-search").withRel("profile");
+    public static final Link BATCH_CREATE_PROFILE = Link.of("/docs/index.html#resources-events-batch-create").withRel("profile");
+    public static final Link INGESTION_PROFILE = Link.of("/docs/index.html#resources-events-async-create").withRel("profile");
+    public static final Link ENROLL_PROFILE = Link.of("/docs/index.html#resources-events-enroll").withRel("profile");
+
+    // Host 헤더로 키가 늘어날 수 있으니 상한을 둔다. 넘치면 캐시하지 않고 매번 만든다.
+    static final int MAX_CACHED_BASE_URLS = 64;
+
+    private static final String REQUEST_ATTRIBUTE = EventLinks.class.getName() + ".TEMPLATE";
+
+    private final Map<String, EventLinkTemplate> templates = new ConcurrentHashMap<>();
+
+    /**
+     * 현재 요청의 base URL 에 해당하는 템플릿. 같은 요청 안에서는 request attribute 에 담아둔 것을 쓴다.
+     */
+    public EventLinkTemplate current() {
+        RequestAttributes requestAttributes = RequestContextHolder.currentRequestAttributes();
+        EventLinkTemplate template =
+                (EventLinkTemplate) requestAttributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (template == null) {
+            template = forBaseUrl(ServletUriComponentsBuilder.fromCurrentServletMapping().toUriString());
+            requestAttributes.setAttribute(REQUEST_ATTRIBUTE, template, RequestAttributes.SCOPE_REQUEST);
+        }
+        return template;
+    }
+
+    /**
+     * 캐시에 올라간 템플릿인지. 상한을 넘어 매번 새로 만든 템플릿이면 false.
+     */
+    public boolean isShared(EventLinkTemplate template) {
+        return this.templates.get(template.getBaseUrl()) == template;
+    }
+
+    public Set<String> sharedBaseUrls() {
+        return this.templates.keySet();
+    }
+
+    private EventLinkTemplate forBaseUrl(String baseUrl) {
+        EventLinkTemplate template = this.templates.get(baseUrl);
+        if (template != null) {
+            return template;
+        }
+
+        template = new EventLinkTemplate(baseUrl,
+                linkTo(EventController.class).toUri().toString(),
+                linkTo(methodOn(IndexController.class).index()).withRel("index"));
+
+        if (this.templates.size() < MAX_CACHED_BASE_URLS) {
+            EventLinkTemplate existing = this.templates.putIfAbsent(baseUrl, template);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        return template;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.demoinflearnrestapi.events;
+
+import org.mapstruct.*;
+
+/**
+ * EventDto <-> Event 매핑. 컴파일 타임에 생성되는 구현(EventMapperImpl)이 getter/setter 를 직접 호출한다.
+ * id, version, eventStatus 와 서버가 계산하는 free / offline, manager 는 건드리지 않는다.
+ */
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING,
+        builder = @Builder(disableBuilder = true), // 빌더를 쓰면 eventStatus 기본값(DRAFT)이 사라진다.
+        unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface EventMapper {
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "eventStatus", ignore = true)
+    @Mapping(target = "free", ignore = true)
+    @Mapping(target = "offline", ignore = true)
+    @Mapping(target = "manager", ignore = true)
+    Event toEvent(EventDto eventDto);
+
+    @InheritConfiguration(name = "toEvent")
+    void updateEvent(EventDto eventDto, @MappingTarget Event event);
+
+    /**
+     * 부분 수정(EventPatch)을 덮어쓸 현재 값.
+     */
+    EventDto toEventDto(Event event);
+}
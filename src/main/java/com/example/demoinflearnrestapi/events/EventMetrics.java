@@ -0,0 +1,49 @@
+package com.example.demoinflearnrestapi.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.Errors;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
+
+/**
+ * EventDto 를 Event 로 옮기는 시간과 검증 실패 수.
+ * 실패는 필드 이름과 오류 코드로만 태그를 단다. 둘 다 EventValidator 가 정한 값이라 개수가 묶여 있다.
+ */
+@Component
+public class EventMetrics {
+
+    @Getter
+    private final Timer toEvent;
+    @Getter
+    private final Timer updateEvent;
+    private final MeterRegistry registry;
+
+    public EventMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.toEvent = mappingTimer(registry, "toEvent");
+        this.updateEvent = mappingTimer(registry, "updateEvent");
+    }
+
+    public void validationFailed(Errors errors) {
+        for (ObjectError error : errors.getAllErrors()) {
+            String field = error instanceof FieldError fieldError ? fieldError.getField() : "global";
+            Counter.builder("events.validation.failures")
+                    .description("Rejected EventDto values")
+                    .tag("field", field)
+                    .tag("code", String.valueOf(error.getCode()))
+                    .register(this.registry)
+                    .increment();
+        }
+    }
+
+    private static Timer mappingTimer(MeterRegistry registry, String operation) {
+        return Timer.builder("events.mapping")
+                .description("EventDto to Event mapping")
+                .tag("operation", operation)
+                .register(registry);
+    }
+}
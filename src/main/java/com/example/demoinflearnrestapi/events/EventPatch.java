@@ -0,0 +1,162 @@
+package com.example.demoinflearnrestapi.events;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.validation.Errors;
+import org.springframework.validation.MapBindingResult;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * JSON Merge Patch(RFC 7396)로 받은 이벤트 수정. 있는 필드만 EventDto 에 덮어쓰고, 어떤 필드가 왔는지는
+ * EventValidator 의 필드 비트로 들고 있어서 그 필드에 걸린 규칙만 다시 검사할 수 있다.
+ * <p>
+ * null 은 값을 지운다. 숫자 필드는 기본값(0)이 되고, eventStatus 는 지울 수 없다.
+ * eventStatus 는 EventDto 에 없으므로 따로 들고 있다가 checkStatus 로 바꿀 수 있는지 보고 applyTo(Event) 에서 쓴다.
+ */
+public class EventPatch {
+
+    public static final String MEDIA_TYPE_VALUE = "application/merge-patch+json";
+
+    private final JsonNode patch;
+    private int fields;
+    private EventStatus eventStatus;
+
+    public EventPatch(JsonNode patch) {
+        this.patch = patch;
+    }
+
+    /**
+     * 있는 필드를 eventDto 에 덮어쓴다. 타입이 맞지 않거나 모르는 필드가 있으면 Errors 를 돌려주고, 이때 eventDto 는 버려야 한다.
+     *
+     * @return 오류가 없으면 null
+     */
+    public Errors applyTo(EventDto eventDto) {
+        if (!this.patch.isObject()) {
+            Errors errors = new MapBindingResult(Map.of(), EventValidator.OBJECT_NAME);
+            errors.reject("typeMismatch", "Merge patch must be a JSON object");
+            return errors;
+        }
+
+        Map<String, Object> rejected = null;
+        Errors errors = null;
+        for (Iterator<Map.Entry<String, JsonNode>> iterator = this.patch.fields(); iterator.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = iterator.next();
+            JsonNode value = field.getValue();
+            boolean applied = switch (field.getKey()) {
+                case "name" -> text(value, eventDto::setName, EventValidator.NAME);
+                case "description" -> text(value, eventDto::setDescription, EventValidator.DESCRIPTION);
+                case "beginEnrollmentDateTime" -> dateTime(value, eventDto::setBeginEnrollmentDateTime,
+                        EventValidator.BEGIN_ENROLLMENT_DATE_TIME);
+                case "closeEnrollmentDateTime" -> dateTime(value, eventDto::setCloseEnrollmentDateTime,
+                        EventValidator.CLOSE_ENROLLMENT_DATE_TIME);
+                case "beginEventDateTime" -> dateTime(value, eventDto::setBeginEventDateTime,
+                        EventValidator.BEGIN_EVENT_DATE_TIME);
+                case "endEventDateTime" -> dateTime(value, eventDto::setEndEventDateTime,
+                        EventValidator.END_EVENT_DATE_TIME);
+                case "location" -> text(value, eventDto::setLocation, EventValidator.LOCATION);
+                case "basePrice" -> number(value, eventDto::setBasePrice, EventValidator.BASE_PRICE);
+                case "maxPrice" -> number(value, eventDto::setMaxPrice, EventValidator.MAX_PRICE);
+                case "limitOfEnrollment" -> number(value, eventDto::setLimitOfEnrollment,
+                        EventValidator.LIMIT_OF_ENROLLMENT);
+                case "eventStatus" -> eventStatus(value);
+                default -> false;
+            };
+            if (!applied) {
+                if (errors == null) {
+                    rejected = new HashMap<>();
+                    errors = new MapBindingResult(rejected, EventValidator.OBJECT_NAME);
+                }
+                rejected.put(field.getKey(), value.isValueNode() ? value.asText() : value.toString());
+                errors.rejectValue(field.getKey(), "typeMismatch", "Unknown field or wrong type");
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * eventStatus 가 있었으면 current 에서 바꿀 수 있는지 본다. (EventStatus.canMoveTo)
+     * 모집 시작 시각은 패치를 덮어쓴 eventDto 의 값을 쓴다.
+     *
+     * @return 바꿀 수 있으면 null
+     */
+    public Errors checkStatus(EventStatus current, EventDto eventDto, LocalDateTime now) {
+        if (this.eventStatus == null
+                || current.canMoveTo(this.eventStatus, eventDto.getBeginEnrollmentDateTime(), now)) {
+            return null;
+        }
+        Errors errors = new MapBindingResult(Map.of("eventStatus", this.eventStatus.name()), EventValidator.OBJECT_NAME);
+        errors.rejectValue("eventStatus", "wrongValue", "Cannot change eventStatus from " + current + " to " + this.eventStatus);
+        return errors;
+    }
+
+    /**
+     * eventStatus 가 있었으면 event 에 쓴다.
+     */
+    public void applyTo(Event event) {
+        if (this.eventStatus != null) {
+            event.setEventStatus(this.eventStatus);
+        }
+    }
+
+    /**
+     * 패치에 있던 필드의 EventValidator 비트. eventStatus 는 검사할 규칙이 없어서 들어가지 않는다.
+     */
+    public int fields() {
+        return this.fields;
+    }
+
+    private boolean text(JsonNode value, Consumer<String> setter, int field) {
+        if (!value.isNull() && !value.isTextual()) {
+            return false;
+        }
+        setter.accept(value.isNull() ? null : value.textValue());
+        this.fields |= field;
+        return true;
+    }
+
+    private boolean dateTime(JsonNode value, Consumer<LocalDateTime> setter, int field) {
+        if (value.isNull()) {
+            setter.accept(null);
+        } else if (value.isTextual()) {
+            try {
+                setter.accept(LocalDateTime.parse(value.textValue()));
+            } catch (DateTimeParseException e) {
+                return false;
+            }
+        } else {
+            return false;
+        }
+        this.fields |= field;
+        return true;
+    }
+
+    private boolean number(JsonNode value, IntConsumer setter, int field) {
+        if (value.isNull()) {
+            setter.accept(0);
+        } else if (value.isIntegralNumber() && value.canConvertToInt()) {
+            setter.accept(value.intValue());
+        } else {
+            return false;
+        }
+        this.fields |= field;
+        return true;
+    }
+
+    private boolean eventStatus(JsonNode value) {
+        if (!value.isTextual()) {
+            return false;
+        }
+        try {
+            this.eventStatus = EventStatus.valueOf(value.textValue());
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return true;
+    }
+}
@@ -1,7 +1,72 @@
 package com.example.demoinflearnrestapi.events;
 
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface EventRepository extends JpaRepository<Event, Integer> {
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * 조회 API 는 EventView 를 읽는다. (EventViewRepository)
+ * 수정처럼 엔티티가 필요한 단건 조회는 manager 를 같은 쿼리에서 join 으로 읽고, manager 의 roles 는 Account 의 @BatchSize 로 읽는다.
+ */
+public interface EventRepository extends JpaRepository<Event, Integer>, JpaSpecificationExecutor<Event>, EventViewRepository {
+
+    // EventView 의 constructor expression 용 생성자와 같은 순서
+    String SELECT_VIEW = """
+            select new com.example.demoinflearnrestapi.events.EventView(
+                e.id, e.version, e.name, e.description,
+                e.beginEnrollmentDateTime, e.closeEnrollmentDateTime, e.beginEventDateTime, e.endEventDateTime,
+                e.location, e.basePrice, e.maxPrice, e.limitOfEnrollment, e.offline, e.free, e.eventStatus,
+                m.id, m.email)
+            from Event e left join e.manager m
+            """;
+
+    @Override
+    @EntityGraph(attributePaths = "manager")
+    Optional<Event> findById(Integer id);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_VIEW + "where e.id = :id")
+    Optional<EventView> findViewById(Integer id);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_VIEW + "where e.id in :ids")
+    List<EventView> findViewsByIds(Collection<Integer> ids);
+
+    /**
+     * 모든 이벤트를 id 순서로 JDBC 커서에서 fetch size 만큼씩 읽는다. 트랜잭션 안에서 소비하고 닫아야 한다.
+     */
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(SELECT_VIEW + "order by e.id")
+    Stream<EventView> streamAllViews();
+
+    /**
+     * status 인 이벤트의 [id, beginEnrollmentDateTime]. 트랜잭션 안에서 소비하고 닫아야 한다.
+     */
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select e.id, e.beginEnrollmentDateTime from Event e where e.eventStatus = :status and e.beginEnrollmentDateTime is not null")
+    Stream<Object[]> streamEnrollmentStarts(EventStatus status);
+
+    /**
+     * ids 중에서 아직 from 이고 모집 시작 시각이 지난 이벤트를 to 로 바꾸고 버전(ETag)을 올린다. UPDATE 한번이다.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Event e set e.eventStatus = :to, e.version = e.version + 1 " +
+            "where e.id in :ids and e.eventStatus = :from and e.beginEnrollmentDateTime <= :now")
+    int advanceEnrollment(Collection<Integer> ids, EventStatus from, EventStatus to, LocalDateTime now);
 }
@@ -1,18 +1,41 @@
 package com.example.demoinflearnrestapi.events;
 
-import com.example.demoinflearnrestapi.events.controller.EventController;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.server.core.EmbeddedWrapper;
+import org.springframework.hateoas.server.core.EmbeddedWrappers;
 
+import java.util.Collection;
 import java.util.List;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+public class EventResource extends EntityModel<EventView> {
 
-public class EventResource extends EntityModel<Event> {
+    private static final EmbeddedWrappers WRAPPERS = new EmbeddedWrappers(false);
 
-    public EventResource(Event event, Link... links) {
+    public EventResource(EventView event, EventLinkTemplate links, Link... extraLinks) {
 
-        super(event, List.of(links));
-        add(linkTo(EventController.class).slash(event.getId()).withSelfRel());
+        super(event, List.of(extraLinks));
+        add(links.self(event.id()));
+    }
+
+    /**
+     * 이벤트 버전으로 만든 ETag. PUT 의 If-Match 와 비교한다.
+     */
+    public static String eTagOf(Integer version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * 목록 응답의 _embedded 내용. HAL 의 HalEmbeddedBuilder 는 항목을 하나 더할 때마다 그때까지의 목록을 새로 복사해서
+     * 페이지 크기의 제곱에 비례하는 비용이 든다. 목록을 wrapper 하나로 묶어 넘기면 한번만 복사하고 출력(eventList 배열)은 같다.
+     * 비어 있으면 _embedded 가 빠지도록 빈 목록을 돌려준다.
+     */
+    public static List<EmbeddedWrapper> embedded(Collection<EventResource> resources) {
+        return resources.isEmpty() ? List.of() : List.of(WRAPPERS.wrap(resources));
+    }
+
+    public static PagedModel<EmbeddedWrapper> embedded(PagedModel<EventResource> pagedResource) {
+        return PagedModel.of(embedded(pagedResource.getContent()), pagedResource.getMetadata(), pagedResource.getLinks());
     }
 }
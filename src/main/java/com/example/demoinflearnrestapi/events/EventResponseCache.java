@@ -0,0 +1,103 @@
+package com.example.demoinflearnrestapi.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * GET /api/events/{id} 응답을 직렬화된 HAL JSON 바이트와 ETag(이벤트 버전)로 보관하는 read-through 캐시.
+ * 응답 링크에 base URL 이 들어가므로 키는 (base URL, id) 이고, 이벤트가 바뀌면 커밋 이후에 모든 base URL 의 항목을 지운다.
+ * 같은 키의 동시 miss 는 Caffeine 이 한번의 로드로 합쳐준다. hit / miss 는 cache.gets{cache="eventResponses"} 로 남긴다.
+ */
+@Component
+public class EventResponseCache {
+
+    private final Cache<Key, CachedEventResponse> cache;
+    private final EventLinks eventLinks;
+    private final RequestMappingHandlerAdapter handlerAdapter;
+    private volatile ObjectMapper halObjectMapper;
+
+    public EventResponseCache(EventResponseCacheProperties properties,
+                              EventLinks eventLinks,
+                              RequestMappingHandlerAdapter handlerAdapter,
+                              MeterRegistry meterRegistry) {
+        this.cache = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build(), "eventResponses");
+        this.eventLinks = eventLinks;
+        this.handlerAdapter = handlerAdapter;
+    }
+
+    /**
+     * 캐시된 응답을 돌려주고, 없으면 loader 로 만든 리소스를 직렬화해서 담는다. 이벤트가 없으면 null.
+     */
+    public CachedEventResponse get(EventLinkTemplate links, Integer id, Supplier<Optional<EventResource>> loader) {
+        if (!this.eventLinks.isShared(links)) {
+            // 캐시하지 않는 base URL 이면 매번 만든다.
+            return loader.get().map(this::serialize).orElse(null);
+        }
+        return this.cache.get(new Key(links.getBaseUrl(), id),
+                key -> loader.get().map(this::serialize).orElse(null));
+    }
+
+    public void evict(Integer id) {
+        this.eventLinks.sharedBaseUrls().forEach(baseUrl -> this.cache.invalidate(new Key(baseUrl, id)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChanged eventChanged) {
+        evict(eventChanged.event().getId());
+    }
+
+    public long size() {
+        return this.cache.estimatedSize();
+    }
+
+    private CachedEventResponse serialize(EventResource eventResource) {
+        try {
+            byte[] body = halObjectMapper().writeValueAsBytes(eventResource);
+            return new CachedEventResponse(body, EventResource.eTagOf(eventResource.getContent().version()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize event " + eventResource.getContent().id(), e);
+        }
+    }
+
+    /**
+     * HAL 응답을 쓰는 메시지 컨버터의 ObjectMapper. 컨트롤러가 직접 응답할 때와 같은 바이트가 나온다.
+     */
+    private ObjectMapper halObjectMapper() {
+        ObjectMapper objectMapper = this.halObjectMapper;
+        if (objectMapper == null) {
+            // Spring HATEOAS 는 HAL 용 ObjectMapper 를 기존 Jackson 컨버터에 RepresentationModel 타입으로 등록해둔다.
+            objectMapper = this.handlerAdapter.getMessageConverters().stream()
+                    .filter(converter -> converter instanceof AbstractJackson2HttpMessageConverter)
+                    .map(converter -> ((AbstractJackson2HttpMessageConverter) converter)
+                            .getObjectMappersForType(EventResource.class).get(MediaTypes.HAL_JSON))
+                    .filter(Objects::nonNull)
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No HAL ObjectMapper registered"));
+            this.halObjectMapper = objectMapper;
+        }
+        return objectMapper;
+    }
+
+    public record CachedEventResponse(byte[] body, String etag) {
+    }
+
+    private record Key(String baseUrl, Integer id) {
+    }
+}
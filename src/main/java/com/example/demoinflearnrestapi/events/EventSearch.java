@@ -0,0 +1,57 @@
+package com.example.demoinflearnrestapi.events;
+
+import jakarta.persistence.criteria.Predicate;
+import lombok.*;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 이벤트 목록 조회의 필터 파라미터. 값이 있는 것만 where 조건이 되고, 모두 Event 의 인덱스 컬럼이다.
+ * 가격은 basePrice 로 거르고 min, max 를 모두 포함한다. 날짜는 beginEventDateTime 으로 거르고 from 포함, to 제외.
+ */
+@Builder @NoArgsConstructor @AllArgsConstructor
+@Data
+public class EventSearch {
+
+    private EventStatus eventStatus;
+    private Boolean free;
+    private Boolean offline;
+    private Integer minBasePrice;
+    private Integer maxBasePrice;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime beginEventFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime beginEventTo;
+
+    public Specification<Event> toSpecification() {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (this.eventStatus != null) {
+                predicates.add(cb.equal(root.get("eventStatus"), this.eventStatus));
+            }
+            if (this.free != null) {
+                predicates.add(cb.equal(root.get("free"), this.free));
+            }
+            if (this.offline != null) {
+                predicates.add(cb.equal(root.get("offline"), this.offline));
+            }
+            if (this.minBasePrice != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("basePrice"), this.minBasePrice));
+            }
+            if (this.maxBasePrice != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("basePrice"), this.maxBasePrice));
+            }
+            if (this.beginEventFrom != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("beginEventDateTime"), this.beginEventFrom));
+            }
+            if (this.beginEventTo != null) {
+                predicates.add(cb.lessThan(root.get("beginEventDateTime"), this.beginEventTo));
+            }
+            return predicates.isEmpty() ? null : cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.demoinflearnrestapi.events;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 이벤트별 남은 참가 자리를 메모리에서 센다. 자리는 limitOfEnrollment 를 넘지 않는 CAS 로만 가져가므로 DB 의 이벤트 행을 잠그지 않고도
+ * 초과 참가가 없다. 처음 참가할 때 DB 의 참가 수로 시작하고, 이후 참가는 모두 이 카운터를 거친 뒤에 저장된다.
+ * <p>
+ * 모집 중(BEGAN_ENROLLMENT)인 이벤트만 올려둔다. 모집 중이 아니면 매번 DB 를 본다.
+ * 가져갔지만 아직 커밋되지 않은 자리(inFlight)가 있는 동안은 모집이 닫혀도 내리지 않고 닫힘으로 표시만 한다.
+ * DB 의 참가 수에는 그 자리가 없으므로, 다시 열 때 DB 로 새로 세면 그만큼 더 내주게 된다.
+ * 인스턴스 하나를 전제로 한다. 여러 인스턴스가 같은 이벤트를 받으면 각자 센 합이 limit 을 넘을 수 있다.
+ */
+@Component
+@RequiredArgsConstructor
+public class EventSeats {
+
+    private final EnrollmentRepository enrollmentRepository;
+    private final Map<Integer, Seats> seats = new ConcurrentHashMap<>();
+    // 항목을 내릴 때마다 올린다. DB 를 읽는 사이에 항목이 내려갔다 올라갔으면 읽은 참가 수를 버린다.
+    private final AtomicLong removals = new AtomicLong();
+
+    public enum Take {
+        TAKEN, FULL, CLOSED, NOT_FOUND
+    }
+
+    /**
+     * TAKEN 이면 저장한 뒤에 committed, 저장하지 못하면 release 를 부른다.
+     */
+    public Take take(Integer eventId) {
+        while (true) {
+            Seats eventSeats = this.seats.get(eventId);
+            if (eventSeats == null || !eventSeats.open) {
+                long removed = this.removals.get();
+                Optional<Capacity> capacity = this.enrollmentRepository.findCapacity(eventId);
+                if (capacity.isEmpty()) {
+                    return Take.NOT_FOUND;
+                }
+                if (capacity.get().eventStatus() != EventStatus.BEGAN_ENROLLMENT) {
+                    return Take.CLOSED;
+                }
+                Seats observed = eventSeats;
+                eventSeats = this.seats.compute(eventId, (id, current) -> {
+                    if (current != observed || (current == null && this.removals.get() != removed)) {
+                        return current;
+                    }
+                    // 닫혀 있던 항목은 커밋되지 않은 자리까지 센 카운터를 그대로 쓴다.
+                    return current == null ? new Seats(capacity.get()) : current.reopen(capacity.get());
+                });
+                if (eventSeats == null || !eventSeats.open) {
+                    continue;
+                }
+            }
+            LocalDateTime closesAt = eventSeats.closesAt;
+            if (closesAt != null && !LocalDateTime.now().isBefore(closesAt)) {
+                return Take.CLOSED;
+            }
+            // 닫는 쪽은 open 을 내린 뒤에 inFlight 를 보므로, 여기서 올린 뒤에 open 을 보면 둘 중 하나는 상대를 본다.
+            eventSeats.inFlight.incrementAndGet();
+            if (!eventSeats.open) {
+                settle(eventId, eventSeats);
+                continue;
+            }
+            if (eventSeats.tryTake()) {
+                return Take.TAKEN;
+            }
+            settle(eventId, eventSeats);
+            return Take.FULL;
+        }
+    }
+
+    /**
+     * 가져간 자리가 커밋되었다.
+     */
+    public void committed(Integer eventId) {
+        Seats eventSeats = this.seats.get(eventId);
+        if (eventSeats != null) {
+            settle(eventId, eventSeats);
+        }
+    }
+
+    /**
+     * 저장하지 못한 참가의 자리를 돌려준다.
+     */
+    public void release(Integer eventId) {
+        Seats eventSeats = this.seats.get(eventId);
+        if (eventSeats != null) {
+            eventSeats.taken.decrementAndGet();
+            settle(eventId, eventSeats);
+        }
+    }
+
+    /**
+     * 올려둔 이벤트면 바뀐 limit 과 마감 시각을 반영한다. 이미 가져간 자리는 limit 이 줄어도 그대로다.
+     * 모집 중이 아니게 되었으면 닫는다. 다음 참가부터는 DB 를 보고 CLOSED 다.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChanged eventChanged) {
+        Event event = eventChanged.event();
+        if (event.getEventStatus() != EventStatus.BEGAN_ENROLLMENT) {
+            this.seats.computeIfPresent(event.getId(), (id, current) -> {
+                current.open = false;
+                return removeIfSettled(current);
+            });
+            return;
+        }
+        Seats eventSeats = this.seats.get(event.getId());
+        if (eventSeats != null) {
+            eventSeats.limit = event.getLimitOfEnrollment();
+            eventSeats.closesAt = event.getCloseEnrollmentDateTime();
+        }
+    }
+
+    private void settle(Integer eventId, Seats eventSeats) {
+        if (eventSeats.inFlight.decrementAndGet() == 0 && !eventSeats.open) {
+            this.seats.computeIfPresent(eventId, (id, current) -> current == eventSeats ? removeIfSettled(current) : current);
+        }
+    }
+
+    private Seats removeIfSettled(Seats current) {
+        if (current.open || current.inFlight.get() > 0) {
+            return current;
+        }
+        this.removals.incrementAndGet();
+        return null;
+    }
+
+    public record Capacity(EventStatus eventStatus, int limitOfEnrollment, LocalDateTime closeEnrollmentDateTime,
+                           long enrolled) {
+    }
+
+    private static final class Seats {
+
+        private final AtomicInteger taken;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private volatile int limit;
+        private volatile LocalDateTime closesAt;
+        private volatile boolean open = true;
+
+        Seats(Capacity capacity) {
+            this.taken = new AtomicInteger((int) capacity.enrolled());
+            this.limit = capacity.limitOfEnrollment();
+            this.closesAt = capacity.closeEnrollmentDateTime();
+        }
+
+        Seats reopen(Capacity capacity) {
+            this.limit = capacity.limitOfEnrollment();
+            this.closesAt = capacity.closeEnrollmentDateTime();
+            this.open = true;
+            return this;
+        }
+
+        boolean tryTake() {
+            while (true) {
+                int current = this.taken.get();
+                if (current >= this.limit) {
+                    return false;
+                }
+                if (this.taken.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
@@ -1,7 +1,26 @@
 package com.example.demoinflearnrestapi.events;
 
 
+import java.time.LocalDateTime;
+
 public enum EventStatus {
 
     DRAFT, PUBLISHED, BEGAN_ENROLLMENT;
+
+    /**
+     * 수정(PATCH)으로 바꿀 수 있는 상태인지. 같은 상태는 항상 된다.
+     * 모집 시작(BEGAN_ENROLLMENT)은 PUBLISHED 이고 모집 시작 시각이 지났을 때만 된다. (EventStatusScheduler 와 같은 조건)
+     * 모집 중인 이벤트는 모집 시작 시각을 뒤로 미뤘을 때만 PUBLISHED 로 되돌릴 수 있다. 그렇지 않으면 스케줄러가 바로 다시 연다.
+     */
+    public boolean canMoveTo(EventStatus target, LocalDateTime beginEnrollmentDateTime, LocalDateTime now) {
+        if (target == this) {
+            return true;
+        }
+        boolean enrollmentBegun = beginEnrollmentDateTime != null && !beginEnrollmentDateTime.isAfter(now);
+        return switch (this) {
+            case DRAFT -> target == PUBLISHED;
+            case PUBLISHED -> target == DRAFT || (target == BEGAN_ENROLLMENT && enrollmentBegun);
+            case BEGAN_ENROLLMENT -> target == PUBLISHED && !enrollmentBegun;
+        };
+    }
 }
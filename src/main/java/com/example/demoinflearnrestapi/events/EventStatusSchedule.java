@@ -0,0 +1,189 @@
+package com.example.demoinflearnrestapi.events;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 이벤트 id 별 예정 시각의 최소 힙. 가장 이른 시각은 O(1) 로 보고, 추가 / 변경 / 취소 / 꺼내기는 O(log n) 이다.
+ * 시각이 된 항목만 꺼내므로 전체를 훑는 일이 없다.
+ * 이벤트 id 는 시퀀스라 촘촘하므로 힙 안의 위치는 id 를 인덱스로 하는 배열에 둔다. 항목마다 객체를 만들지 않아서 백만 건이 20MB 정도다.
+ * 배열은 id 가 MAX_DENSE_ID 보다 작을 때만 쓰고(최대 16MB), 직접 넣은 id 나 시퀀스가 건너뛴 큰 id 는 맵에 둔다.
+ * <p>
+ * 동기화하지 않는다. EventStatusScheduler 가 락을 잡고 쓴다.
+ */
+class EventStatusSchedule {
+
+    private long[] deadlines = new long[1024];
+    private int[] ids = new int[1024];
+    private int size;
+
+    static final int MAX_DENSE_ID = 1 << 22;
+
+    private int[] positions = new int[1024]; // 힙 위치 + 1, 0 이면 예정 없음
+    private final Map<Integer, Integer> sparsePositions = new HashMap<>(); // MAX_DENSE_ID 이상이거나 음수인 id
+
+    /**
+     * 예정 시각을 정한다. 이미 있으면 바꾼다.
+     *
+     * @return 가장 이른 예정이 바뀌었으면 true
+     */
+    boolean schedule(int id, long deadline) {
+        long earliest = nextDeadline();
+        int position = position(id);
+        if (position < 0) {
+            ensureCapacity(id);
+            position = this.size++;
+            this.deadlines[position] = deadline;
+            this.ids[position] = id;
+            setPosition(id, position + 1);
+            siftUp(position);
+        } else {
+            long previous = this.deadlines[position];
+            this.deadlines[position] = deadline;
+            if (deadline < previous) {
+                siftUp(position);
+            } else {
+                siftDown(position);
+            }
+        }
+        return nextDeadline() != earliest;
+    }
+
+    /**
+     * 예정이 없을 때만 정한다. 시작할 때 DB 에서 읽은 값이 그 사이에 들어온 변경을 덮지 않게 한다.
+     */
+    boolean scheduleIfAbsent(int id, long deadline) {
+        return position(id) < 0 && schedule(id, deadline);
+    }
+
+    void cancel(int id) {
+        int position = position(id);
+        if (position >= 0) {
+            removeAt(position);
+        }
+    }
+
+    boolean contains(int id) {
+        return position(id) >= 0;
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * 가장 이른 예정 시각. 비어 있으면 Long.MAX_VALUE.
+     */
+    long nextDeadline() {
+        return this.size == 0 ? Long.MAX_VALUE : this.deadlines[0];
+    }
+
+    /**
+     * now 까지 예정된 id 를 이른 순서로 최대 due.length 개 꺼낸다.
+     *
+     * @return 꺼낸 개수
+     */
+    int pollDue(long now, int[] due) {
+        int count = 0;
+        while (count < due.length && this.size > 0 && this.deadlines[0] <= now) {
+            due[count++] = this.ids[0];
+            removeAt(0);
+        }
+        return count;
+    }
+
+    private int position(int id) {
+        if (id >= 0 && id < this.positions.length) {
+            return this.positions[id] - 1;
+        }
+        if (dense(id)) {
+            return -1;
+        }
+        return this.sparsePositions.getOrDefault(id, 0) - 1;
+    }
+
+    private void setPosition(int id, int position) {
+        if (dense(id)) {
+            this.positions[id] = position;
+        } else if (position == 0) {
+            this.sparsePositions.remove(id);
+        } else {
+            this.sparsePositions.put(id, position);
+        }
+    }
+
+    private static boolean dense(int id) {
+        return id >= 0 && id < MAX_DENSE_ID;
+    }
+
+    private void removeAt(int position) {
+        int last = --this.size;
+        setPosition(this.ids[position], 0);
+        if (position == last) {
+            return;
+        }
+        long deadline = this.deadlines[last];
+        move(last, position);
+        if (position > 0 && deadline < this.deadlines[(position - 1) / 2]) {
+            siftUp(position);
+        } else {
+            siftDown(position);
+        }
+    }
+
+    private void siftUp(int position) {
+        long deadline = this.deadlines[position];
+        int id = this.ids[position];
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (this.deadlines[parent] <= deadline) {
+                break;
+            }
+            move(parent, position);
+            position = parent;
+        }
+        place(position, deadline, id);
+    }
+
+    private void siftDown(int position) {
+        long deadline = this.deadlines[position];
+        int id = this.ids[position];
+        int half = this.size / 2;
+        while (position < half) {
+            int child = 2 * position + 1;
+            if (child + 1 < this.size && this.deadlines[child + 1] < this.deadlines[child]) {
+                child++;
+            }
+            if (deadline <= this.deadlines[child]) {
+                break;
+            }
+            move(child, position);
+            position = child;
+        }
+        place(position, deadline, id);
+    }
+
+    private void move(int from, int to) {
+        this.deadlines[to] = this.deadlines[from];
+        this.ids[to] = this.ids[from];
+        setPosition(this.ids[to], to + 1);
+    }
+
+    private void place(int position, long deadline, int id) {
+        this.deadlines[position] = deadline;
+        this.ids[position] = id;
+        setPosition(id, position + 1);
+    }
+
+    private void ensureCapacity(int id) {
+        if (dense(id) && id >= this.positions.length) {
+            this.positions = Arrays.copyOf(this.positions,
+                    Math.min(MAX_DENSE_ID, Math.max(this.positions.length * 2, id + 1)));
+        }
+        if (this.size == this.deadlines.length) {
+            this.deadlines = Arrays.copyOf(this.deadlines, this.size * 2);
+            this.ids = Arrays.copyOf(this.ids, this.size * 2);
+        }
+    }
+}
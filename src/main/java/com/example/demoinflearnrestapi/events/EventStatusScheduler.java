@@ -0,0 +1,219 @@
+package com.example.demoinflearnrestapi.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * PUBLISHED 이벤트를 beginEnrollmentDateTime 이 되면 BEGAN_ENROLLMENT 로 바꾼다.
+ * 예정은 EventStatusSchedule 에 두고, 시작할 때 DB 에서 한번 읽은 뒤로는 생성 / 수정이 커밋될 때마다 그 이벤트만 고친다.
+ * 전용 스레드 하나가 가장 이른 예정 시각까지 잠들었다가 그때 시각이 된 이벤트를 chunk 마다 UPDATE 한번으로 바꾼다.
+ * <p>
+ * UPDATE 가 상태와 시각을 다시 확인하므로, 메모리의 예정이 DB 보다 늦게 고쳐져도 잘못 바꾸지 않는다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "events.status-scheduler", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class EventStatusScheduler implements SmartLifecycle {
+
+    static final int CHUNK_SIZE = 500;
+    // 시계가 바뀌어도 이보다 오래 잠들지 않는다. 깨어나면 가장 이른 예정 하나만 본다.
+    private static final Duration MAX_SLEEP = Duration.ofMinutes(1);
+    private static final long RETRY_SECONDS = 10;
+    private static final Duration STOP_TIMEOUT = Duration.ofSeconds(10);
+
+    private final EventRepository eventRepository;
+    private final EventResponseCache eventResponseCache;
+    private final Counter advanced;
+
+    private final EventStatusSchedule schedule = new EventStatusSchedule();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = this.lock.newCondition();
+    private volatile boolean running;
+    private volatile Thread worker;
+
+    public EventStatusScheduler(EventRepository eventRepository,
+                                EventResponseCache eventResponseCache,
+                                MeterRegistry meterRegistry) {
+        this.eventRepository = eventRepository;
+        this.eventResponseCache = eventResponseCache;
+        this.advanced = Counter.builder("events.status.advanced")
+                .description("Events moved to BEGAN_ENROLLMENT")
+                .register(meterRegistry);
+        Gauge.builder("events.status.scheduled", this, EventStatusScheduler::scheduled)
+                .description("Events waiting for their enrollment to begin")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        long start = System.nanoTime();
+        int loaded = 0;
+        try (Stream<Object[]> starts = this.eventRepository.streamEnrollmentStarts(EventStatus.PUBLISHED)) {
+            for (Iterator<Object[]> it = starts.iterator(); it.hasNext(); loaded++) {
+                Object[] row = it.next();
+                int id = (Integer) row[0];
+                long deadline = deadline((LocalDateTime) row[1]);
+                this.lock.lock();
+                try {
+                    if (this.schedule.scheduleIfAbsent(id, deadline)) {
+                        this.changed.signal();
+                    }
+                } finally {
+                    this.lock.unlock();
+                }
+            }
+        }
+        log.info("Scheduled {} enrollment starts in {} ms", loaded, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChanged eventChanged) {
+        Event event = eventChanged.event();
+        this.lock.lock();
+        try {
+            if (event.getEventStatus() == EventStatus.PUBLISHED && event.getBeginEnrollmentDateTime() != null) {
+                if (this.schedule.schedule(event.getId(), deadline(event.getBeginEnrollmentDateTime()))) {
+                    this.changed.signal();
+                }
+            } else {
+                this.schedule.cancel(event.getId());
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    public int scheduled() {
+        this.lock.lock();
+        try {
+            return this.schedule.size();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public void start() {
+        this.running = true;
+        Thread worker = new Thread(this::run, "event-status-scheduler");
+        worker.setDaemon(true);
+        worker.start();
+        this.worker = worker;
+    }
+
+    @Override
+    public void stop() {
+        this.running = false;
+        Thread worker = this.worker;
+        if (worker == null) {
+            return;
+        }
+        this.lock.lock();
+        try {
+            this.changed.signal();
+        } finally {
+            this.lock.unlock();
+        }
+        try {
+            worker.join(STOP_TIMEOUT.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.worker = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return this.worker != null;
+    }
+
+    private void run() {
+        int[] due = new int[CHUNK_SIZE];
+        while (true) {
+            int count;
+            this.lock.lock();
+            try {
+                count = awaitDue(due);
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                this.lock.unlock();
+            }
+            if (count < 0) {
+                return;
+            }
+            advance(due, count);
+        }
+    }
+
+    /**
+     * 시각이 된 예정이 생길 때까지 기다렸다가 꺼낸다. 멈추면 -1. 락을 잡고 부른다.
+     */
+    private int awaitDue(int[] due) throws InterruptedException {
+        while (this.running) {
+            LocalDateTime now = LocalDateTime.now();
+            int count = this.schedule.pollDue(now.toEpochSecond(ZoneOffset.UTC), due);
+            if (count > 0) {
+                return count;
+            }
+            long next = this.schedule.nextDeadline();
+            Duration sleep = next == Long.MAX_VALUE ? MAX_SLEEP
+                    : Duration.between(now, LocalDateTime.ofEpochSecond(next, 0, ZoneOffset.UTC));
+            this.changed.awaitNanos(Math.min(sleep.toNanos(), MAX_SLEEP.toNanos()));
+        }
+        return -1;
+    }
+
+    private void advance(int[] due, int count) {
+        List<Integer> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(due[i]);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int updated;
+        try {
+            updated = this.eventRepository.advanceEnrollment(ids, EventStatus.PUBLISHED, EventStatus.BEGAN_ENROLLMENT, now);
+        } catch (RuntimeException e) {
+            log.warn("Cannot advance {} events to {}, retrying in {}s", count, EventStatus.BEGAN_ENROLLMENT, RETRY_SECONDS, e);
+            long retryAt = now.toEpochSecond(ZoneOffset.UTC) + RETRY_SECONDS;
+            this.lock.lock();
+            try {
+                ids.forEach(id -> this.schedule.scheduleIfAbsent(id, retryAt));
+            } finally {
+                this.lock.unlock();
+            }
+            return;
+        }
+        ids.forEach(this.eventResponseCache::evict);
+        this.advanced.increment(updated);
+        log.debug("Advanced {} of {} due events to {}", updated, count, EventStatus.BEGAN_ENROLLMENT);
+    }
+
+    /**
+     * 예정 시각(초). 초 아래가 있으면 올려서 UPDATE 의 시각 확인보다 먼저 깨지 않게 한다.
+     */
+    static long deadline(LocalDateTime at) {
+        long seconds = at.toEpochSecond(ZoneOffset.UTC);
+        return at.getNano() == 0 ? seconds : seconds + 1;
+    }
+}
@@ -0,0 +1,437 @@
+package com.example.demoinflearnrestapi.events;
+
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * 이벤트 name 과 description 의 역색인. 단어마다 이벤트 id 를 오름차순으로 담은 int 배열(postings)과 같은 자리의 빈도 배열을 둔다.
+ * 이벤트 id 는 시퀀스라 촘촘하므로 이벤트별 정보(단어 목록, 길이, 버전)는 id 를 인덱스로 하는 배열에 둔다.
+ * 배열은 id 가 MAX_DENSE_ID 보다 작을 때만 쓰고(최대 64MB 정도), 직접 넣은 id 나 시퀀스가 건너뛴 큰 id 는 맵에 둔다.
+ * 점수는 BM25 이고 name 의 단어는 두 번 나온 것으로 센다.
+ * <p>
+ * 조회는 read lock, 색인은 write lock 을 잡는다. 버전이 더 낮은 색인 요청은 무시하므로 시작할 때의 전체 색인과
+ * 그 사이에 들어온 변경이 어떤 순서로 와도 마지막 버전이 남는다.
+ */
+@Component
+public class EventTextIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int NAME_WEIGHT = 2;
+    private static final int[] EMPTY = new int[0];
+    static final int MAX_DENSE_ID = 1 << 22;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private int[][] postingDocs = new int[1024][];
+    private int[][] postingFreqs = new int[1024][];
+    private int[] postingSizes = new int[1024];
+    private int terms;
+
+    private int[][] docTerms = new int[1024][]; // null 이면 색인되지 않은 id
+    private int[] docLengths = new int[1024];
+    private int[] docVersions = new int[1024];
+    private final Map<Integer, SparseDoc> sparseDocs = new HashMap<>(); // MAX_DENSE_ID 이상이거나 음수인 id
+    private int documents;
+    private long totalLength;
+
+    /**
+     * 이벤트를 색인한다. 이미 같거나 더 높은 버전으로 색인되어 있으면 아무것도 하지 않는다.
+     *
+     * @return 색인을 바꿨으면 true
+     */
+    public boolean index(int id, Integer version, String name, String description) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = count(name, NAME_WEIGHT, frequencies) + count(description, 1, frequencies);
+        int newVersion = version == null ? 0 : version;
+
+        this.lock.writeLock().lock();
+        try {
+            if (termsOf(id) != null && versionOf(id) >= newVersion) {
+                return false;
+            }
+            removeLocked(id);
+
+            int[] termsOfDoc = new int[frequencies.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                int termId = termIdLocked(entry.getKey());
+                addPosting(termId, id, entry.getValue());
+                termsOfDoc[i++] = termId;
+            }
+            putDoc(id, termsOfDoc, length, newVersion);
+            this.documents++;
+            this.totalLength += length;
+            return true;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int id) {
+        this.lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        this.lock.writeLock().lock();
+        try {
+            this.termIds.clear();
+            this.postingDocs = new int[1024][];
+            this.postingFreqs = new int[1024][];
+            this.postingSizes = new int[1024];
+            this.terms = 0;
+            this.docTerms = new int[1024][];
+            this.docLengths = new int[1024];
+            this.docVersions = new int[1024];
+            this.sparseDocs.clear();
+            this.documents = 0;
+            this.totalLength = 0;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * postings 배열의 남는 자리를 잘라낸다. 한번에 많이 색인한 뒤에 부른다.
+     */
+    public void trim() {
+        this.lock.writeLock().lock();
+        try {
+            for (int t = 0; t < this.terms; t++) {
+                int size = this.postingSizes[t];
+                if (this.postingDocs[t].length > size) {
+                    this.postingDocs[t] = Arrays.copyOf(this.postingDocs[t], size);
+                    this.postingFreqs[t] = Arrays.copyOf(this.postingFreqs[t], size);
+                }
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 질의의 단어 중 하나라도 들어간 이벤트를 점수가 높은 순으로 offset 부터 limit 건까지 돌려준다. 점수가 같으면 id 순.
+     */
+    public Hits search(String query, long offset, int limit) {
+        Set<String> queryTerms = new HashSet<>();
+        tokenize(query, queryTerms::add);
+
+        this.lock.readLock().lock();
+        try {
+            List<Integer> matched = new ArrayList<>();
+            for (String term : queryTerms) {
+                Integer termId = this.termIds.get(term);
+                if (termId != null && this.postingSizes[termId] > 0) {
+                    matched.add(termId);
+                }
+            }
+            if (matched.isEmpty() || offset >= Integer.MAX_VALUE) {
+                return new Hits(0, EMPTY, new float[0]);
+            }
+            return collect(matched.stream().mapToInt(Integer::intValue).toArray(), (int) offset, limit);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    public int documentCount() {
+        this.lock.readLock().lock();
+        try {
+            return this.documents;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        this.lock.readLock().lock();
+        try {
+            return this.termIds.size();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 단어마다 postings 를 앞에서부터 같이 읽어 나간다(id 순 병합). 상위 offset + limit 건만 힙에 남긴다.
+     */
+    private Hits collect(int[] matched, int offset, int limit) {
+        int n = matched.length;
+        int[] positions = new int[n];
+        float[] idf = new float[n];
+        for (int i = 0; i < n; i++) {
+            int df = this.postingSizes[matched[i]];
+            idf[i] = (float) Math.log(1 + (this.documents - df + 0.5) / (df + 0.5));
+        }
+        float averageLength = (float) this.totalLength / this.documents;
+
+        TopHits top = new TopHits((int) Math.min((long) offset + limit, Integer.MAX_VALUE));
+        int total = 0;
+        while (true) {
+            int doc = Integer.MAX_VALUE;
+            boolean remaining = false;
+            for (int i = 0; i < n; i++) {
+                if (positions[i] < this.postingSizes[matched[i]]) {
+                    doc = Math.min(doc, this.postingDocs[matched[i]][positions[i]]);
+                    remaining = true;
+                }
+            }
+            if (!remaining) {
+                break;
+            }
+
+            float norm = K1 * (1 - B + B * lengthOf(doc) / averageLength);
+            float score = 0;
+            for (int i = 0; i < n; i++) {
+                int t = matched[i];
+                if (positions[i] < this.postingSizes[t] && this.postingDocs[t][positions[i]] == doc) {
+                    int tf = this.postingFreqs[t][positions[i]];
+                    score += idf[i] * tf * (K1 + 1) / (tf + norm);
+                    positions[i]++;
+                }
+            }
+            total++;
+            top.offer(doc, score);
+        }
+        return top.toHits(total, offset);
+    }
+
+    private void removeLocked(int id) {
+        int[] termsOfDoc = termsOf(id);
+        if (termsOfDoc == null) {
+            return;
+        }
+        for (int termId : termsOfDoc) {
+            int size = this.postingSizes[termId];
+            int[] docs = this.postingDocs[termId];
+            int position = Arrays.binarySearch(docs, 0, size, id);
+            System.arraycopy(docs, position + 1, docs, position, size - position - 1);
+            System.arraycopy(this.postingFreqs[termId], position + 1, this.postingFreqs[termId], position, size - position - 1);
+            this.postingSizes[termId] = size - 1;
+        }
+        this.totalLength -= lengthOf(id);
+        this.documents--;
+        if (dense(id)) {
+            this.docTerms[id] = null;
+        } else {
+            this.sparseDocs.remove(id);
+        }
+    }
+
+    // null 이면 색인되지 않은 id
+    private int[] termsOf(int id) {
+        if (id >= 0 && id < this.docTerms.length) {
+            return this.docTerms[id];
+        }
+        SparseDoc doc = dense(id) ? null : this.sparseDocs.get(id);
+        return doc == null ? null : doc.terms();
+    }
+
+    private int lengthOf(int id) {
+        return dense(id) ? this.docLengths[id] : this.sparseDocs.get(id).length();
+    }
+
+    private int versionOf(int id) {
+        return dense(id) ? this.docVersions[id] : this.sparseDocs.get(id).version();
+    }
+
+    private void putDoc(int id, int[] termsOfDoc, int length, int version) {
+        if (!dense(id)) {
+            this.sparseDocs.put(id, new SparseDoc(termsOfDoc, length, version));
+            return;
+        }
+        ensureDocCapacity(id);
+        this.docTerms[id] = termsOfDoc;
+        this.docLengths[id] = length;
+        this.docVersions[id] = version;
+    }
+
+    private static boolean dense(int id) {
+        return id >= 0 && id < MAX_DENSE_ID;
+    }
+
+    private void addPosting(int termId, int id, int frequency) {
+        int size = this.postingSizes[termId];
+        int[] docs = this.postingDocs[termId];
+        // 새 이벤트는 id 가 가장 크므로 보통 끝에 붙는다.
+        int position = size == 0 || docs[size - 1] < id ? size : -(Arrays.binarySearch(docs, 0, size, id) + 1);
+        if (size == docs.length) {
+            int capacity = Math.max(2, size + (size >> 1));
+            docs = this.postingDocs[termId] = Arrays.copyOf(docs, capacity);
+            this.postingFreqs[termId] = Arrays.copyOf(this.postingFreqs[termId], capacity);
+        }
+        int[] freqs = this.postingFreqs[termId];
+        System.arraycopy(docs, position, docs, position + 1, size - position);
+        System.arraycopy(freqs, position, freqs, position + 1, size - position);
+        docs[position] = id;
+        freqs[position] = frequency;
+        this.postingSizes[termId] = size + 1;
+    }
+
+    private int termIdLocked(String term) {
+        Integer termId = this.termIds.get(term);
+        if (termId != null) {
+            return termId;
+        }
+        if (this.terms == this.postingSizes.length) {
+            int capacity = this.terms + (this.terms >> 1);
+            this.postingDocs = Arrays.copyOf(this.postingDocs, capacity);
+            this.postingFreqs = Arrays.copyOf(this.postingFreqs, capacity);
+            this.postingSizes = Arrays.copyOf(this.postingSizes, capacity);
+        }
+        int newTermId = this.terms++;
+        this.postingDocs[newTermId] = EMPTY;
+        this.postingFreqs[newTermId] = EMPTY;
+        this.termIds.put(term, newTermId);
+        return newTermId;
+    }
+
+    private void ensureDocCapacity(int id) {
+        if (id < this.docTerms.length) {
+            return;
+        }
+        int capacity = Math.min(MAX_DENSE_ID, Math.max(id + 1, this.docTerms.length + (this.docTerms.length >> 1)));
+        this.docTerms = Arrays.copyOf(this.docTerms, capacity);
+        this.docLengths = Arrays.copyOf(this.docLengths, capacity);
+        this.docVersions = Arrays.copyOf(this.docVersions, capacity);
+    }
+
+    private static int count(String text, int weight, Map<String, Integer> frequencies) {
+        int[] length = new int[1];
+        tokenize(text, token -> {
+            frequencies.merge(token, weight, Integer::sum);
+            length[0] += weight;
+        });
+        return length[0];
+    }
+
+    /**
+     * 글자와 숫자가 아닌 문자로 나누고 소문자로 바꾼다. 한글도 띄어쓰기 단위의 단어가 된다.
+     */
+    static void tokenize(String text, Consumer<String> tokens) {
+        if (text == null) {
+            return;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean letter = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                tokens.accept(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+    }
+
+    private record SparseDoc(int[] terms, int length, int version) {
+    }
+
+    /**
+     * 전체 일치 건수와 요청한 구간의 이벤트 id, 점수. ids 는 점수가 높은 순이다.
+     */
+    public record Hits(int total, int[] ids, float[] scores) {
+    }
+
+    /**
+     * 크기가 정해진 min-heap. 루트가 남은 것 중 가장 낮은 순위다.
+     */
+    private static final class TopHits {
+
+        private final int capacity;
+        private int[] docs = new int[16];
+        private float[] scores = new float[16];
+        private int size;
+
+        TopHits(int capacity) {
+            this.capacity = capacity;
+        }
+
+        void offer(int doc, float score) {
+            if (this.capacity == 0) {
+                return;
+            }
+            if (this.size < this.capacity) {
+                if (this.size == this.docs.length) {
+                    int grown = (int) Math.min(this.capacity, (long) this.size * 2);
+                    this.docs = Arrays.copyOf(this.docs, grown);
+                    this.scores = Arrays.copyOf(this.scores, grown);
+                }
+                this.docs[this.size] = doc;
+                this.scores[this.size] = score;
+                siftUp(this.size++);
+            } else if (lower(this.docs[0], this.scores[0], doc, score)) {
+                this.docs[0] = doc;
+                this.scores[0] = score;
+                siftDown(0);
+            }
+        }
+
+        Hits toHits(int total, int offset) {
+            // 힙에서 가장 낮은 순위부터 꺼내서 뒤에서부터 채운다.
+            int count = this.size;
+            int[] rankedDocs = new int[count];
+            float[] rankedScores = new float[count];
+            for (int i = count - 1; i >= 0; i--) {
+                rankedDocs[i] = this.docs[0];
+                rankedScores[i] = this.scores[0];
+                this.size--;
+                this.docs[0] = this.docs[this.size];
+                this.scores[0] = this.scores[this.size];
+                siftDown(0);
+            }
+            int from = Math.min(offset, count);
+            return new Hits(total, Arrays.copyOfRange(rankedDocs, from, count), Arrays.copyOfRange(rankedScores, from, count));
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (!lower(this.docs[i], this.scores[i], this.docs[parent], this.scores[parent])) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int lowest = i;
+                for (int child = 2 * i + 1; child <= 2 * i + 2 && child < this.size; child++) {
+                    if (lower(this.docs[child], this.scores[child], this.docs[lowest], this.scores[lowest])) {
+                        lowest = child;
+                    }
+                }
+                if (lowest == i) {
+                    return;
+                }
+                swap(i, lowest);
+                i = lowest;
+            }
+        }
+
+        private void swap(int i, int j) {
+            int doc = this.docs[i];
+            float score = this.scores[i];
+            this.docs[i] = this.docs[j];
+            this.scores[i] = this.scores[j];
+            this.docs[j] = doc;
+            this.scores[j] = score;
+        }
+
+        // 점수가 낮거나, 같으면 id 가 큰 쪽이 낮은 순위
+        private static boolean lower(int doc, float score, int otherDoc, float otherScore) {
+            return score < otherScore || (score == otherScore && doc > otherDoc);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.demoinflearnrestapi.events;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * EventTextIndex 를 채운다. 시작할 때 EventRepository 의 커서로 전체를 한번 색인하고,
+ * 이후에는 생성 / 수정이 커밋될 때마다 그 이벤트만 다시 색인한다. 배치로 만든 이벤트는 id 만 받으므로 CHUNK_SIZE 개씩 다시 읽는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventTextIndexer {
+
+    static final int CHUNK_SIZE = 1000;
+
+    private final EventRepository eventRepository;
+    private final EventTextIndex eventTextIndex;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.nanoTime();
+        try (Stream<EventView> events = this.eventRepository.streamAllViews()) {
+            for (Iterator<EventView> it = events.iterator(); it.hasNext(); ) {
+                EventView event = it.next();
+                this.eventTextIndex.index(event.id(), event.version(), event.name(), event.description());
+            }
+        }
+        this.eventTextIndex.trim();
+        log.info("Indexed {} events ({} terms) in {} ms", this.eventTextIndex.documentCount(),
+                this.eventTextIndex.termCount(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChanged eventChanged) {
+        Event event = eventChanged.event();
+        this.eventTextIndex.index(event.getId(), event.getVersion(), event.getName(), event.getDescription());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventsCreated(EventsCreated eventsCreated) {
+        List<Integer> ids = eventsCreated.ids();
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            List<Integer> chunk = ids.subList(from, Math.min(ids.size(), from + CHUNK_SIZE));
+            for (EventView event : this.eventRepository.findViewsByIds(chunk)) {
+                this.eventTextIndex.index(event.id(), event.version(), event.name(), event.description());
+            }
+        }
+    }
+}
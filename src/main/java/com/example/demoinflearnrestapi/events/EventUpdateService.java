@@ -0,0 +1,68 @@
+package com.example.demoinflearnrestapi.events;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.validation.Errors;
+
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 이벤트 수정(PUT, PATCH). 조회, 검사, 변경, 저장을 한 트랜잭션에서 하므로 엔티티는 끝까지 영속 상태이고,
+ * manager 도 조회할 때 같이 읽은 그대로 응답에 쓴다. UPDATE 는 dirty checking 으로 나간다.
+ * <p>
+ * 조회와 커밋 사이에 다른 수정이 커밋되면 flush 때 버전 검사에 걸려서 OptimisticLockingFailureException 이 난다.
+ */
+@Service
+@RequiredArgsConstructor
+public class EventUpdateService {
+
+    private final EventRepository eventRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public enum Status {
+        UPDATED, NOT_FOUND, PRECONDITION_FAILED, INVALID
+    }
+
+    /**
+     * @param event  UPDATED 일 때 수정된 이벤트
+     * @param eTag   UPDATED 면 새 ETag, PRECONDITION_FAILED 면 현재 ETag
+     * @param errors INVALID 일 때 change 가 돌려준 오류
+     */
+    public record Result(Status status, EventView event, String eTag, Errors errors) {
+    }
+
+    /**
+     * @param precondition 현재 ETag 를 받아서 수정해도 되는지 (If-Match)
+     * @param change       이벤트를 바꾼다. 바꿀 수 없으면 바꾸지 않고 오류를 돌려준다.
+     */
+    @Transactional
+    public Result update(Integer id, Predicate<String> precondition, Function<Event, Errors> change) {
+        Optional<Event> optionalEvent = this.eventRepository.findById(id);
+        if (optionalEvent.isEmpty()) {
+            return new Result(Status.NOT_FOUND, null, null, null);
+        }
+
+        Event event = optionalEvent.get();
+        String currentETag = EventResource.eTagOf(event.getVersion());
+        if (!precondition.test(currentETag)) {
+            return new Result(Status.PRECONDITION_FAILED, null, currentETag, null);
+        }
+
+        Errors errors = change.apply(event);
+        if (errors != null) {
+            // 검사 중에 엔티티를 건드렸더라도 커밋하지 않는다.
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return new Result(Status.INVALID, null, null, errors);
+        }
+
+        // 새 버전을 응답의 ETag 로 쓰고, 버전 충돌을 여기서 알 수 있게 바로 flush 한다.
+        this.eventRepository.saveAndFlush(event);
+        this.eventPublisher.publishEvent(new EventChanged(event));
+        return new Result(Status.UPDATED, EventView.from(event), EventResource.eTagOf(event.getVersion()), null);
+    }
+}
@@ -1,31 +1,124 @@
 package com.example.demoinflearnrestapi.events;
 
 import org.springframework.stereotype.Component;
+import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.Errors;
 
 import java.time.LocalDateTime;
 
+/**
+ * EventDto 의 애너테이션 제약(@NotEmpty, @NotNull, @Min)과 가격 / 날짜 규칙을 한번에 검사한다.
+ * 리플렉션 없이 getter 를 한번씩만 읽고, Errors 는 처음 오류가 나올 때 만든다. 오류 코드는 Bean Validation 과 같다.
+ * <p>
+ * 필드 비트를 주면 그 필드에 걸린 규칙만 본다. 가격 / 날짜 규칙은 관련 필드 하나라도 있으면 합쳐진 값 전체로 본다. (EventPatch)
+ */
 @Component
 public class EventValidator {
 
-    public void validate(EventDto eventDto, Errors errors) {
-        if(eventDto.getBasePrice() > eventDto.getMaxPrice()
-                && eventDto.getMaxPrice() > 0) {
-            errors.rejectValue("basePrice",
-                    "wrongValue", "BasePrice is wrong");
-            errors.rejectValue("maxPrice",
-                    "wrongValue", "MaxPrice is wrong");
+    static final String OBJECT_NAME = "eventDto";
+
+    public static final int NAME = 1;
+    public static final int DESCRIPTION = 1 << 1;
+    public static final int BEGIN_ENROLLMENT_DATE_TIME = 1 << 2;
+    public static final int CLOSE_ENROLLMENT_DATE_TIME = 1 << 3;
+    public static final int BEGIN_EVENT_DATE_TIME = 1 << 4;
+    public static final int END_EVENT_DATE_TIME = 1 << 5;
+    public static final int LOCATION = 1 << 6;
+    public static final int BASE_PRICE = 1 << 7;
+    public static final int MAX_PRICE = 1 << 8;
+    public static final int LIMIT_OF_ENROLLMENT = 1 << 9;
+    public static final int ALL = (1 << 10) - 1;
+
+    private static final int PRICES = BASE_PRICE | MAX_PRICE;
+    private static final int DATES = BEGIN_ENROLLMENT_DATE_TIME | CLOSE_ENROLLMENT_DATE_TIME
+            | BEGIN_EVENT_DATE_TIME | END_EVENT_DATE_TIME;
+
+    /**
+     * @return 오류가 없으면 null
+     */
+    public Errors validate(EventDto eventDto) {
+        return validate(eventDto, ALL);
+    }
+
+    /**
+     * fields 에 있는 필드의 제약과, 그 필드가 걸린 가격 / 날짜 규칙만 검사한다.
+     *
+     * @return 오류가 없으면 null
+     */
+    public Errors validate(EventDto eventDto, int fields) {
+        String name = eventDto.getName();
+        String description = eventDto.getDescription();
+        LocalDateTime beginEnrollmentDateTime = eventDto.getBeginEnrollmentDateTime();
+        LocalDateTime closeEnrollmentDateTime = eventDto.getCloseEnrollmentDateTime();
+        LocalDateTime beginEventDateTime = eventDto.getBeginEventDateTime();
+        LocalDateTime endEventDateTime = eventDto.getEndEventDateTime();
+        int basePrice = eventDto.getBasePrice();
+        int maxPrice = eventDto.getMaxPrice();
+        int limitOfEnrollment = eventDto.getLimitOfEnrollment();
+
+        Errors errors = null;
+        if ((fields & NAME) != 0 && (name == null || name.isEmpty())) {
+            errors = reject(errors, eventDto, "name", "NotEmpty", "must not be empty");
+        }
+        if ((fields & DESCRIPTION) != 0 && (description == null || description.isEmpty())) {
+            errors = reject(errors, eventDto, "description", "NotEmpty", "must not be empty");
+        }
+        if ((fields & BEGIN_ENROLLMENT_DATE_TIME) != 0 && beginEnrollmentDateTime == null) {
+            errors = reject(errors, eventDto, "beginEnrollmentDateTime", "NotNull", "must not be null");
+        }
+        if ((fields & CLOSE_ENROLLMENT_DATE_TIME) != 0 && closeEnrollmentDateTime == null) {
+            errors = reject(errors, eventDto, "closeEnrollmentDateTime", "NotNull", "must not be null");
+        }
+        if ((fields & BEGIN_EVENT_DATE_TIME) != 0 && beginEventDateTime == null) {
+            errors = reject(errors, eventDto, "beginEventDateTime", "NotNull", "must not be null");
+        }
+        if ((fields & END_EVENT_DATE_TIME) != 0 && endEventDateTime == null) {
+            errors = reject(errors, eventDto, "endEventDateTime", "NotNull", "must not be null");
+        }
+        if ((fields & BASE_PRICE) != 0 && basePrice < 0) {
+            errors = reject(errors, eventDto, "basePrice", "Min", "must be greater than or equal to 0");
+        }
+        if ((fields & MAX_PRICE) != 0 && maxPrice < 0) {
+            errors = reject(errors, eventDto, "maxPrice", "Min", "must be greater than or equal to 0");
+        }
+        if ((fields & LIMIT_OF_ENROLLMENT) != 0 && limitOfEnrollment < 0) {
+            errors = reject(errors, eventDto, "limitOfEnrollment", "Min", "must be greater than or equal to 0");
+        }
+
+        if ((fields & PRICES) != 0 && basePrice > maxPrice && maxPrice > 0) {
+            errors = reject(errors, eventDto, "basePrice", "wrongValue", "BasePrice is wrong");
+            errors.rejectValue("maxPrice", "wrongValue", "MaxPrice is wrong");
             errors.reject("wrongPrices", "Values fo prices are wrong");
         }
 
-        LocalDateTime endEventDateTime = eventDto.getEndEventDateTime();
-        if(endEventDateTime.isBefore(eventDto.getBeginEventDateTime()) ||
-            endEventDateTime.isBefore(eventDto.getCloseEnrollmentDateTime()) ||
-                endEventDateTime.isBefore(eventDto.getBeginEnrollmentDateTime())) {
-            errors.rejectValue("endEventDateTime", "wrongValue");
+        // 날짜 순서: 등록 시작 <= 등록 마감 <= 이벤트 시작 <= 이벤트 끝. 빠진 날짜가 있으면 위에서 이미 걸린다.
+        if ((fields & DATES) == 0) {
+            return errors;
         }
+        if (beginEnrollmentDateTime == null || closeEnrollmentDateTime == null
+                || beginEventDateTime == null || endEventDateTime == null) {
+            return errors;
+        }
+        if (endEventDateTime.isBefore(beginEventDateTime) ||
+                endEventDateTime.isBefore(closeEnrollmentDateTime) ||
+                endEventDateTime.isBefore(beginEnrollmentDateTime)) {
+            errors = reject(errors, eventDto, "endEventDateTime", "wrongValue", "EndEventDateTime is wrong");
+        }
+        if (beginEventDateTime.isBefore(closeEnrollmentDateTime) ||
+                beginEventDateTime.isBefore(beginEnrollmentDateTime)) {
+            errors = reject(errors, eventDto, "beginEventDateTime", "wrongValue", "BeginEventDateTime is wrong");
+        }
+        if (closeEnrollmentDateTime.isBefore(beginEnrollmentDateTime)) {
+            errors = reject(errors, eventDto, "closeEnrollmentDateTime", "wrongValue", "CloseEnrollmentDateTime is wrong");
+        }
+        return errors;
+    }
 
-        // TODO beginEventDateTime
-        // TODO CLoseEnrollmentDateTime
+    private static Errors reject(Errors errors, EventDto eventDto, String field, String code, String defaultMessage) {
+        if (errors == null) {
+            errors = new BeanPropertyBindingResult(eventDto, OBJECT_NAME);
+        }
+        errors.rejectValue(field, code, defaultMessage);
+        return errors;
     }
 }
@@ -0,0 +1,59 @@
+package com.example.demoinflearnrestapi.events;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.springframework.hateoas.server.core.Relation;
+
+import java.time.LocalDateTime;
+
+/**
+ * 조회 API 가 내보내는 이벤트. 영속성 컨텍스트에 올라가지 않는 읽기 전용 값이고, manager 는 id 와 email 만 담는다.
+ * version 은 본문 대신 ETag 로 나간다.
+ */
+@Relation(collectionRelation = "eventList")
+public record EventView(Integer id,
+                        @JsonIgnore Integer version,
+                        String name,
+                        String description,
+                        LocalDateTime beginEnrollmentDateTime,
+                        LocalDateTime closeEnrollmentDateTime,
+                        LocalDateTime beginEventDateTime,
+                        LocalDateTime endEventDateTime,
+                        String location,
+                        int basePrice,
+                        int maxPrice,
+                        int limitOfEnrollment,
+                        boolean offline,
+                        boolean free,
+                        EventStatus eventStatus,
+                        ManagerView manager) {
+
+    /**
+     * JPQL / Criteria 의 constructor expression 용. manager 는 left join 이라 없으면 managerId 가 null 이다.
+     */
+    public EventView(Integer id, Integer version, String name, String description,
+                     LocalDateTime beginEnrollmentDateTime, LocalDateTime closeEnrollmentDateTime,
+                     LocalDateTime beginEventDateTime, LocalDateTime endEventDateTime,
+                     String location, int basePrice, int maxPrice, int limitOfEnrollment,
+                     boolean offline, boolean free, EventStatus eventStatus,
+                     Integer managerId, String managerEmail) {
+        this(id, version, name, description,
+                beginEnrollmentDateTime, closeEnrollmentDateTime, beginEventDateTime, endEventDateTime,
+                location, basePrice, maxPrice, limitOfEnrollment, offline, free, eventStatus,
+                managerId == null ? null : new ManagerView(managerId, managerEmail));
+    }
+
+    /**
+     * 생성 / 수정 직후처럼 이미 엔티티를 들고 있을 때 쓴다.
+     */
+    public static EventView from(Event event) {
+        return new EventView(event.getId(), event.getVersion(), event.getName(), event.getDescription(),
+                event.getBeginEnrollmentDateTime(), event.getCloseEnrollmentDateTime(),
+                event.getBeginEventDateTime(), event.getEndEventDateTime(),
+                event.getLocation(), event.getBasePrice(), event.getMaxPrice(), event.getLimitOfEnrollment(),
+                event.isOffline(), event.isFree(), event.getEventStatus(),
+                event.getManager() == null ? null : new ManagerView(event.getManager().getId(), event.getManager().getEmail()));
+    }
+
+    public record ManagerView(Integer id, String email) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.demoinflearnrestapi.events;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * 조회 API 용 EventView 쿼리. 필요한 컬럼만 constructor expression 으로 읽고, 엔티티를 영속성 컨텍스트에 올리지 않는다.
+ * 구현은 EventViewRepositoryImpl 이고 EventRepository 에 붙어서 쓰인다.
+ */
+public interface EventViewRepository {
+
+    Page<EventView> findViews(Specification<Event> spec, Pageable pageable);
+
+    /**
+     * 커서 페이징 용. count 없이 정렬해서 limit 건까지만 읽는다.
+     */
+    List<EventView> findViews(Specification<Event> spec, Sort sort, int limit);
+}
@@ -0,0 +1,78 @@
+package com.example.demoinflearnrestapi.events;
+
+import com.example.demoinflearnrestapi.accounts.Account;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+
+@RequiredArgsConstructor
+@Transactional(readOnly = true) // flush 를 끄고 커넥션도 read-only 로 쓴다.
+class EventViewRepositoryImpl implements EventViewRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Page<EventView> findViews(Specification<Event> spec, Pageable pageable) {
+        TypedQuery<EventView> query = viewQuery(spec, pageable.getSort());
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> count(spec));
+    }
+
+    @Override
+    public List<EventView> findViews(Specification<Event> spec, Sort sort, int limit) {
+        return viewQuery(spec, sort)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private TypedQuery<EventView> viewQuery(Specification<Event> spec, Sort sort) {
+        CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+        CriteriaQuery<EventView> query = cb.createQuery(EventView.class);
+        Root<Event> event = query.from(Event.class);
+        Join<Event, Account> manager = event.join("manager", JoinType.LEFT);
+
+        // EventView 의 constructor expression 용 생성자와 같은 순서
+        query.select(cb.construct(EventView.class,
+                event.get("id"), event.get("version"), event.get("name"), event.get("description"),
+                event.get("beginEnrollmentDateTime"), event.get("closeEnrollmentDateTime"),
+                event.get("beginEventDateTime"), event.get("endEventDateTime"),
+                event.get("location"), event.get("basePrice"), event.get("maxPrice"), event.get("limitOfEnrollment"),
+                event.get("offline"), event.get("free"), event.get("eventStatus"),
+                manager.get("id"), manager.get("email")));
+        where(query, event, cb, spec);
+        query.orderBy(toOrders(sort, event, cb));
+
+        return this.entityManager.createQuery(query);
+    }
+
+    private long count(Specification<Event> spec) {
+        CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Event> event = query.from(Event.class);
+        query.select(cb.count(event));
+        where(query, event, cb, spec);
+
+        return this.entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static void where(CriteriaQuery<?> query, Root<Event> event, CriteriaBuilder cb, Specification<Event> spec) {
+        Predicate predicate = spec == null ? null : spec.toPredicate(event, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.demoinflearnrestapi.events;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.util.NameTransformer;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * EventView 를 리플렉션 없이 쓴다. 필드 순서와 값의 모양(ISO-8601 날짜, enum 이름, null)은 기본 빈 직렬화와 같아서
+ * 응답 바이트가 바뀌지 않는다. (EventResourceSerializationTest)
+ * 날짜는 DateTimeFormatter 를 거치지 않고 char[] 에 바로 쓴다. 0 ~ 9999 년이 아니면 ISO_LOCAL_DATE_TIME 으로 넘긴다.
+ * <p>
+ * EntityModel 안에서는 @JsonUnwrapped 자리라서 필드만 쓰는 unwrapping 버전이 쓰인다.
+ */
+@JsonComponent
+public class EventViewSerializer extends JsonSerializer<EventView> {
+
+    private static final String[] NAMES = {"id", "name", "description",
+            "beginEnrollmentDateTime", "closeEnrollmentDateTime", "beginEventDateTime", "endEventDateTime",
+            "location", "basePrice", "maxPrice", "limitOfEnrollment", "offline", "free", "eventStatus", "manager"};
+    private static final SerializableString MANAGER_ID = new SerializedString("id");
+    private static final SerializableString MANAGER_EMAIL = new SerializedString("email");
+    // yyyy-MM-ddTHH:mm:ss.SSSSSSSSS
+    private static final int MAX_DATE_TIME_LENGTH = 29;
+
+    private final SerializableString[] names;
+    private final boolean unwrapping;
+
+    public EventViewSerializer() {
+        this(NameTransformer.NOP, false);
+    }
+
+    private EventViewSerializer(NameTransformer transformer, boolean unwrapping) {
+        this.names = new SerializableString[NAMES.length];
+        for (int i = 0; i < NAMES.length; i++) {
+            this.names[i] = new SerializedString(transformer.transform(NAMES[i]));
+        }
+        this.unwrapping = unwrapping;
+    }
+
+    @Override
+    public boolean isUnwrappingSerializer() {
+        return this.unwrapping;
+    }
+
+    @Override
+    public JsonSerializer<EventView> unwrappingSerializer(NameTransformer unwrapper) {
+        return new EventViewSerializer(unwrapper, true);
+    }
+
+    @Override
+    public void serialize(EventView event, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        if (!this.unwrapping) {
+            gen.writeStartObject(event);
+        }
+        SerializableString[] names = this.names;
+        char[] buffer = new char[MAX_DATE_TIME_LENGTH];
+
+        gen.writeFieldName(names[0]);
+        writeInteger(gen, event.id());
+        gen.writeFieldName(names[1]);
+        gen.writeString(event.name());
+        gen.writeFieldName(names[2]);
+        gen.writeString(event.description());
+        gen.writeFieldName(names[3]);
+        writeDateTime(gen, event.beginEnrollmentDateTime(), buffer);
+        gen.writeFieldName(names[4]);
+        writeDateTime(gen, event.closeEnrollmentDateTime(), buffer);
+        gen.writeFieldName(names[5]);
+        writeDateTime(gen, event.beginEventDateTime(), buffer);
+        gen.writeFieldName(names[6]);
+        writeDateTime(gen, event.endEventDateTime(), buffer);
+        gen.writeFieldName(names[7]);
+        gen.writeString(event.location());
+        gen.writeFieldName(names[8]);
+        gen.writeNumber(event.basePrice());
+        gen.writeFieldName(names[9]);
+        gen.writeNumber(event.maxPrice());
+        gen.writeFieldName(names[10]);
+        gen.writeNumber(event.limitOfEnrollment());
+        gen.writeFieldName(names[11]);
+        gen.writeBoolean(event.offline());
+        gen.writeFieldName(names[12]);
+        gen.writeBoolean(event.free());
+        gen.writeFieldName(names[13]);
+        gen.writeString(event.eventStatus() == null ? null : event.eventStatus().name());
+        gen.writeFieldName(names[14]);
+        EventView.ManagerView manager = event.manager();
+        if (manager == null) {
+            gen.writeNull();
+        } else {
+            gen.writeStartObject(manager);
+            gen.writeFieldName(MANAGER_ID);
+            writeInteger(gen, manager.id());
+            gen.writeFieldName(MANAGER_EMAIL);
+            gen.writeString(manager.email());
+            gen.writeEndObject();
+        }
+
+        if (!this.unwrapping) {
+            gen.writeEndObject();
+        }
+    }
+
+    private static void writeInteger(JsonGenerator gen, Integer value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+
+    private static void writeDateTime(JsonGenerator gen, LocalDateTime value, char[] buffer) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+            return;
+        }
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            gen.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+            return;
+        }
+        gen.writeString(buffer, 0, formatDateTime(value, buffer));
+    }
+
+    /**
+     * ISO_LOCAL_DATE_TIME 과 같은 모양. 초는 항상 쓰고, 소수점 아래는 0 이 아닐 때만 끝의 0 을 떼고 쓴다.
+     */
+    private static int formatDateTime(LocalDateTime value, char[] buffer) {
+        int year = value.getYear();
+        buffer[0] = (char) ('0' + year / 1000);
+        buffer[1] = (char) ('0' + year / 100 % 10);
+        buffer[2] = (char) ('0' + year / 10 % 10);
+        buffer[3] = (char) ('0' + year % 10);
+        buffer[4] = '-';
+        twoDigits(buffer, 5, value.getMonthValue());
+        buffer[7] = '-';
+        twoDigits(buffer, 8, value.getDayOfMonth());
+        buffer[10] = 'T';
+        twoDigits(buffer, 11, value.getHour());
+        buffer[13] = ':';
+        twoDigits(buffer, 14, value.getMinute());
+        buffer[16] = ':';
+        twoDigits(buffer, 17, value.getSecond());
+
+        int nano = value.getNano();
+        if (nano == 0) {
+            return 19;
+        }
+        buffer[19] = '.';
+        int length = 20;
+        for (int divisor = 100_000_000; divisor > 0 && nano > 0; divisor /= 10) {
+            buffer[length++] = (char) ('0' + nano / divisor);
+            nano %= divisor;
+        }
+        return length;
+    }
+
+    private static void twoDigits(char[] buffer, int offset, int value) {
+        buffer[offset] = (char) ('0' + value / 10);
+        buffer[offset + 1] = (char) ('0' + value % 10);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.demoinflearnrestapi.events;
+
+import java.util.List;
+
+/**
+ * 배치로 이벤트를 만들었을 때 EventChanged 대신 한번 발행한다. 커밋까지 엔티티를 붙잡지 않도록 id 만 담는다.
+ * 새 이벤트는 모두 DRAFT 라서 모집 자리나 모집 시작 예정과는 상관이 없고, 색인만 다시 읽어서 채운다. (EventTextIndexer)
+ */
+public record EventsCreated(List<Integer> ids) {
+}
@@ -0,0 +1,100 @@
+package com.example.demoinflearnrestapi.events.controller;
+
+import com.example.demoinflearnrestapi.common.SqlBudget;
+import com.example.demoinflearnrestapi.events.EnrollmentService;
+import com.example.demoinflearnrestapi.events.EnrollmentStatus;
+import com.example.demoinflearnrestapi.events.EnrollmentView;
+import com.example.demoinflearnrestapi.events.EventLinkTemplate;
+import com.example.demoinflearnrestapi.events.EventLinks;
+import lombok.RequiredArgsConstructor;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.Errors;
+import org.springframework.validation.MapBindingResult;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import java.security.Principal;
+import java.util.Map;
+import java.util.Optional;
+
+@Controller
+@RequestMapping(value = "/api/events/{eventId}/enrollments", produces = MediaTypes.HAL_JSON_VALUE)
+@RequiredArgsConstructor
+public class EnrollmentController {
+
+    private final EnrollmentService enrollmentService;
+    private final EventLinks eventLinks;
+
+    /**
+     * 모집 중인 이벤트에 참가한다. 자리가 없거나 모집 중이 아니면 409, 대기열이 차서 받지 못했으면 503.
+     * 받았지만 제한 시간 안에 저장되지 않았으면 202 와 상태 링크를 돌려준다. 다시 보내면 자리를 하나 더 가져간다.
+     * 이벤트 행을 잠그지 않으며 SQL 은 이벤트를 처음 볼 때 한번만 나간다. (EventSeats)
+     */
+    @PostMapping
+    @SqlBudget(statements = 1)
+    public ResponseEntity<?> enroll(@PathVariable Integer eventId, Principal principal) {
+        EnrollmentService.Result result = this.enrollmentService.enroll(eventId, principal != null ? principal.getName() : null);
+        EventLinkTemplate links = this.eventLinks.current();
+        return switch (result.status()) {
+            case ENROLLED -> created(eventId, result.enrollment(), links);
+            case ACCEPTED -> {
+                EntityModel<EnrollmentStatus> statusResource = statusResource(result.pending(), links);
+                yield ResponseEntity.accepted()
+                        .location(statusResource.getRequiredLink(IanaLinkRelations.SELF).toUri())
+                        .body(statusResource);
+            }
+            case FULL -> conflict("full", "No seats left", links);
+            case CLOSED -> conflict("closed", "Enrollment is not open", links);
+            case NOT_FOUND -> ResponseEntity.notFound().build();
+            case BUSY -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(this.enrollmentService.retryAfterSeconds()))
+                    .build();
+        };
+    }
+
+    /**
+     * 202 로 받은 참가의 상태. 모르는 id 거나 보관 기간이 지났으면 404.
+     */
+    @GetMapping("/pending/{id}")
+    @SqlBudget(statements = 0)
+    public ResponseEntity<?> getStatus(@PathVariable Integer eventId, @PathVariable String id) {
+        Optional<EnrollmentStatus> status = this.enrollmentService.status(id)
+                .filter(enrollmentStatus -> enrollmentStatus.eventId().equals(eventId));
+        if (status.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(statusResource(status.get(), this.eventLinks.current()));
+    }
+
+    private static EntityModel<EnrollmentStatus> statusResource(EnrollmentStatus status, EventLinkTemplate links) {
+        EntityModel<EnrollmentStatus> statusResource = EntityModel.of(status);
+        statusResource.add(Link.of(links.enrollmentStatusHref(status.eventId(), status.id()), IanaLinkRelations.SELF));
+        statusResource.add(Link.of(links.eventHref(status.eventId()), "event"));
+        statusResource.add(EventLinks.ENROLL_PROFILE);
+        return statusResource;
+    }
+
+    private static ResponseEntity<?> created(Integer eventId, EnrollmentView enrollment, EventLinkTemplate links) {
+        EntityModel<EnrollmentView> enrollmentResource = EntityModel.of(enrollment);
+        enrollmentResource.add(Link.of(links.eventHref(eventId), "event"));
+        enrollmentResource.add(EventLinks.ENROLL_PROFILE);
+        return ResponseEntity.status(HttpStatus.CREATED).body(enrollmentResource);
+    }
+
+    private static ResponseEntity<?> conflict(String code, String message, EventLinkTemplate links) {
+        Errors errors = new MapBindingResult(Map.of(), "enrollment");
+        errors.reject(code, message);
+        EntityModel<Errors> errorResource = EntityModel.of(errors);
+        errorResource.add(links.getIndex());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResource);
+    }
+}
@@ -1,129 +1,424 @@
 package com.example.demoinflearnrestapi.events.controller;
 
+import com.example.demoinflearnrestapi.common.SqlBudget;
 import com.example.demoinflearnrestapi.events.*;
+import com.example.demoinflearnrestapi.events.EventResponseCache.CachedEventResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.v3.oas.annotations.Operation;
-import jakarta.validation.Valid;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.*;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.*;
-import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.hateoas.server.core.EmbeddedWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.Errors;
+import org.springframework.validation.MapBindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
-import java.util.Optional;
-
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
 
 @Controller
 @RequestMapping(value = "/api/events", produces = MediaTypes.HAL_JSON_VALUE)
 @RequiredArgsConstructor
 public class EventController {
 
+    private static final String PREFER = "Prefer";
+    private static final String PREFERENCE_APPLIED = "Preference-Applied";
+    private static final String RESPOND_ASYNC = "respond-async";
+
     private final EventRepository eventRepository;
-    private final ModelMapper modelMapper;
+    private final EventMapper eventMapper;
     private final EventValidator eventValidator;
+    private final EventMetrics eventMetrics;
+    private final EventLinks eventLinks;
+    private final EventCursor eventCursor;
+    private final EventResponseCache eventResponseCache;
+    private final EventBatchService eventBatchService;
+    private final EventExportService eventExportService;
+    private final EventTextIndex eventTextIndex;
+    private final EventUpdateService eventUpdateService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectProvider<EventIngestion> eventIngestion;
 
+    /**
+     * events.ingestion.enabled 이고 Prefer: respond-async 로 오면 검증까지만 하고 저장은 EventIngestion 에 맡긴다.
+     */
     @PostMapping
-    public ResponseEntity<?> createEvent(@RequestBody @Valid EventDto eventDto, Errors errors) {
-
-        EntityModel<Errors> errorResource = EntityModel.of(errors);
-        errorResource.add(linkTo(methodOn(IndexController.class).index()).withRel("index"));
+    @SqlBudget(statements = 2)
+    public ResponseEntity<?> createEvent(@RequestBody EventDto eventDto,
+                                         @RequestHeader(value = PREFER, required = false) String prefer) {
 
-        if(errors.hasErrors()) {
-            return ResponseEntity.badRequest().body(errorResource);
+        Errors errors = this.eventValidator.validate(eventDto);
+        if(errors != null) {
+            this.eventMetrics.validationFailed(errors);
+            return badRequest(errors);
         }
 
-        eventValidator.validate(eventDto, errors);
-        if(errors.hasErrors()) {
-            return ResponseEntity.badRequest().body(errorResource);
+        Event event = this.eventMetrics.getToEvent().record(() -> this.eventMapper.toEvent(eventDto));
+        event.update();
+        EventIngestion ingestion = this.eventIngestion.getIfAvailable();
+        if (ingestion != null && respondAsync(prefer)) {
+            return ingest(ingestion, event);
         }
 
-        Event event = modelMapper.map(eventDto, Event.class);
-        event.update();
         Event newEvent = this.eventRepository.save(event);
+        this.eventPublisher.publishEvent(new EventChanged(newEvent));
 
-        // TODO HATEOAS 적용-1
-        // TODO Location 헤더 정보에 URI 담기
-        // TODO ControllerLinkBuilder(2.1.0.RELEASE) -> WebMvcLinkBuilder(2.2.5 RELEASE)
+        EventLinkTemplate links = this.eventLinks.current();
+        URI createdUri = links.eventUri(newEvent.getId());
 
-        WebMvcLinkBuilder selfLinkBuilder = linkTo(EventController.class)
-                .slash(newEvent.getId());
-        URI createdUri = selfLinkBuilder.toUri();
-
-        // TODO HATEOAS 적용 - 2
-        EntityModel<Event> eventResource = EntityModel.of(newEvent);
-        eventResource.add(selfLinkBuilder.withSelfRel());
-        eventResource.add(linkTo(EventController.class).withRel("query-events"));
-        eventResource.add(selfLinkBuilder.withRel("update-event"));
-        eventResource.add(Link.of("/docs/index.html#resources-events-create").withRel("profile"));
+        EntityModel<EventView> eventResource = EntityModel.of(EventView.from(newEvent));
+        eventResource.add(links.self(newEvent.getId()));
+        eventResource.add(links.getQueryEvents());
+        eventResource.add(links.updateEvent(newEvent.getId()));
+        eventResource.add(EventLinks.CREATE_PROFILE);
 
         return ResponseEntity.created(createdUri).body(eventResource);
     }
 
+    /**
+     * 대기열에 넣고 202 와 상태 링크를 돌려준다. 대기열이 찼으면 429.
+     */
+    private ResponseEntity<?> ingest(EventIngestion ingestion, Event event) {
+        Optional<EventIngestionStatus> status = ingestion.submit(event);
+        if (status.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(ingestion.retryAfterSeconds()))
+                    .build();
+        }
+
+        EntityModel<EventIngestionStatus> ingestionResource = ingestionResource(status.get());
+        return ResponseEntity.accepted()
+                .location(ingestionResource.getRequiredLink(IanaLinkRelations.SELF).toUri())
+                .header(PREFERENCE_APPLIED, RESPOND_ASYNC)
+                .body(ingestionResource);
+    }
+
+    /**
+     * 비동기 생성 요청의 상태. 저장되면 event 링크가 붙는다. 모르는 id 거나 보관 기간이 지났으면 404.
+     */
+    @GetMapping("/ingestions/{id}")
+    @SqlBudget(statements = 0)
+    public ResponseEntity<?> getIngestion(@PathVariable String id) {
+        EventIngestion ingestion = this.eventIngestion.getIfAvailable();
+        Optional<EventIngestionStatus> status = ingestion != null ? ingestion.status(id) : Optional.empty();
+        if (status.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(ingestionResource(status.get()));
+    }
+
+    private EntityModel<EventIngestionStatus> ingestionResource(EventIngestionStatus status) {
+        EventLinkTemplate links = this.eventLinks.current();
+        EntityModel<EventIngestionStatus> ingestionResource = EntityModel.of(status);
+        ingestionResource.add(Link.of(links.ingestionHref(status.id()), IanaLinkRelations.SELF));
+        if (status.eventId() != null) {
+            ingestionResource.add(Link.of(links.eventHref(status.eventId()), "event"));
+        }
+        ingestionResource.add(EventLinks.INGESTION_PROFILE);
+        return ingestionResource;
+    }
+
+    /**
+     * EventDto 배열로 이벤트를 한번에 만든다. 검증에 실패한 항목은 건너뛰고 failures 에 위치와 오류를 담는다.
+     * INSERT 는 chunk(50건)마다 한번씩 나가므로 SQL 예산은 약 5만 건까지다.
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @SqlBudget(statements = 1000, repeats = 1000)
+    public ResponseEntity<?> createEvents(InputStream body) throws IOException {
+        EventBatchResult result;
+        try {
+            result = this.eventBatchService.createEvents(body);
+        } catch (JsonProcessingException e) {
+            Errors errors = new MapBindingResult(Map.of(), "eventDtos");
+            errors.reject("malformedJson", e.getOriginalMessage());
+            return badRequest(errors);
+        }
+
+        EventLinkTemplate links = this.eventLinks.current();
+        EntityModel<EventBatchResult> batchResource = EntityModel.of(result);
+        batchResource.add(links.getQueryEvents());
+        batchResource.add(EventLinks.BATCH_CREATE_PROFILE);
+
+        return ResponseEntity.ok(batchResource);
+    }
+
+    /**
+     * EventSearch 의 파라미터로 거른다. 필터는 DB 에서 인덱스로 처리되고, 페이지 링크에도 그대로 남는다.
+     */
     @GetMapping
+    @SqlBudget(statements = 3)
     public ResponseEntity<?> queryEvents(Pageable pageable
-            , PagedResourcesAssembler<Event> assembler) {
-        Page<Event> page = this.eventRepository.findAll(pageable);
+            , PagedResourcesAssembler<EventView> assembler
+            , @ModelAttribute EventSearch search
+            , @RequestParam(required = false) String after) {
+        Specification<Event> filter = search.toSpecification();
+        if (after != null) {
+            return queryEventsAfter(after, filter, pageable);
+        }
 
-        var pagedResource = assembler.toModel(page, EventResource::new);
-        pagedResource.add(Link.of("/docs/index.html#resources-events-list").withRel("profile"));
+        Page<EventView> page = this.eventRepository.findViews(filter, pageable);
+
+        // 페이지 링크가 필터 파라미터를 잃지 않도록 현재 요청 URI 를 기준으로 만든다.
+        EventLinkTemplate links = this.eventLinks.current();
+        Link base = Link.of(ServletUriComponentsBuilder.fromCurrentRequest().toUriString());
+        var pagedResource = EventResource.embedded(assembler.toModel(page, event -> new EventResource(event, links), base));
+        pagedResource.add(EventLinks.LIST_PROFILE);
 
         return ResponseEntity.ok(pagedResource);
     }
 
+    /**
+     * name 과 description 의 단어로 찾는다. 결과는 EventTextIndex 의 점수 순이고 sort 파라미터는 쓰지 않는다.
+     */
+    @GetMapping("/search")
+    @SqlBudget(statements = 2)
+    public ResponseEntity<?> searchEvents(@RequestParam String q
+            , Pageable pageable
+            , PagedResourcesAssembler<EventView> assembler) {
+        EventTextIndex.Hits hits = this.eventTextIndex.search(q, pageable.getOffset(), pageable.getPageSize());
+        Page<EventView> page = new PageImpl<>(findViewsInOrder(hits.ids()), pageable, hits.total());
+
+        EventLinkTemplate links = this.eventLinks.current();
+        Link base = Link.of(ServletUriComponentsBuilder.fromCurrentRequest().toUriString());
+        var pagedResource = EventResource.embedded(assembler.toModel(page, event -> new EventResource(event, links), base));
+        pagedResource.add(EventLinks.SEARCH_PROFILE);
+
+        return ResponseEntity.ok(pagedResource);
+    }
+
+    /**
+     * 모든 이벤트를 NDJSON 으로 내려준다. 페이지 단위로 여러번 조회하는 대신 커서 하나로 끝까지 읽는다.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @SqlBudget(statements = 1)
+    public void exportEvents(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        this.eventExportService.export(response.getOutputStream());
+    }
+
+    /**
+     * 커서 모드. OFFSET 과 count 쿼리 없이 마지막으로 본 (정렬 키, id) 다음부터 읽는다.
+     * page 파라미터는 무시하고, 다음 페이지는 next 링크의 after 토큰으로 이어진다.
+     */
+    private ResponseEntity<?> queryEventsAfter(String after, Specification<Event> filter, Pageable pageable) {
+        Sort seekSort;
+        Specification<Event> seek;
+        try {
+            seekSort = this.eventCursor.seekSort(pageable.getSort());
+            seek = this.eventCursor.decode(after, seekSort);
+        } catch (IllegalArgumentException e) {
+            Errors errors = new MapBindingResult(Map.of("after", after), "eventCursor");
+            errors.rejectValue("after", "wrongValue", e.getMessage());
+            return badRequest(errors);
+        }
+
+        // 한 건 더 읽어서 다음 페이지가 있는지 본다.
+        int size = pageable.getPageSize();
+        List<EventView> events = this.eventRepository.findViews(seek.and(filter), seekSort, size + 1);
+        boolean hasNext = events.size() > size;
+        if (hasNext) {
+            events = events.subList(0, size);
+        }
+
+        EventLinkTemplate links = this.eventLinks.current();
+        List<EventResource> eventResources = events.stream()
+                .map(event -> new EventResource(event, links))
+                .toList();
+
+        ServletUriComponentsBuilder current = ServletUriComponentsBuilder.fromCurrentRequest();
+        CollectionModel<EmbeddedWrapper> collectionResource = CollectionModel.of(EventResource.embedded(eventResources));
+        collectionResource.add(Link.of(current.toUriString()));
+        if (hasNext) {
+            String nextCursor = this.eventCursor.encode(events.get(size - 1), seekSort);
+            collectionResource.add(Link.of(current
+                    .replaceQueryParam("page")
+                    .replaceQueryParam("after", nextCursor)
+                    .toUriString(), IanaLinkRelations.NEXT));
+        }
+        collectionResource.add(EventLinks.LIST_PROFILE);
+
+        return ResponseEntity.ok(collectionResource);
+    }
+
+    /**
+     * 직렬화된 응답을 캐시에서 꺼내 쓴다. If-None-Match 가 ETag 와 맞으면 304 (HttpEntityMethodProcessor 가 처리).
+     */
     @GetMapping("/{id}")
+    @SqlBudget(statements = 1)
     public ResponseEntity<?> getEvent(@PathVariable Integer id) {
-        Optional<Event> optionalEvent = this.eventRepository.findById(id);
-        if (optionalEvent.isEmpty()) {
+        EventLinkTemplate links = this.eventLinks.current();
+        CachedEventResponse response = this.eventResponseCache.get(links, id,
+                () -> this.eventRepository.findViewById(id).map(event -> {
+                    EventResource eventResource = new EventResource(event, links);
+                    eventResource.add(EventLinks.GET_PROFILE);
+                    return eventResource;
+                }));
+        if (response == null) {
             return ResponseEntity.notFound().build();
         }
 
-        Event event = optionalEvent.get();
-
-        EventResource eventResource = new EventResource(event);
-        eventResource.add(Link.of("/docs/index.html#resources-event-list").withRel("profile"));
-        return ResponseEntity.ok(eventResource);
+        return ResponseEntity.ok()
+                .eTag(response.etag())
+                .contentType(MediaTypes.HAL_JSON)
+                .body(response.body());
     }
 
+    /**
+     * If-Match 가 있으면 현재 ETag(버전)와 맞을 때만 수정한다. 락을 잡지 않고, 조회와 커밋 사이에 다른 수정이 끼어들면
+     * 버전 검사에 걸려서 역시 412 를 돌려준다.
+     */
     @PutMapping("/{id}")
+    @SqlBudget(statements = 2)
     public ResponseEntity<?> updateEvent(@PathVariable Integer id,
-                                         @RequestBody @Valid EventDto eventDto,
-                                         Errors errors) {
+                                         @RequestBody EventDto eventDto,
+                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
-        Optional<Event> optionalEvent = this.eventRepository.findById(id);
-        if(optionalEvent.isEmpty()) {
-            return ResponseEntity.notFound().build();
-        }
+        return update(id, ifMatch, existingEvent -> {
+            Errors errors = this.eventValidator.validate(eventDto);
+            if (errors != null) {
+                this.eventMetrics.validationFailed(errors);
+                return errors;
+            }
 
-        EntityModel<Errors> errorResource = EntityModel.of(errors);
-        errorResource.add(linkTo(methodOn(IndexController.class).index()).withRel("index"));
+            this.eventMetrics.getUpdateEvent().record(() -> this.eventMapper.updateEvent(eventDto, existingEvent));
+            return null;
+        });
+    }
 
-        if (errors.hasErrors()) {
-            return ResponseEntity.badRequest().body(errorResource);
-        }
+    /**
+     * JSON Merge Patch 로 온 필드만 바꾼다. 바뀐 필드에 걸린 규칙만 다시 검사하고, UPDATE 에는 실제로 값이 바뀐 컬럼만 들어간다.
+     * If-Match 는 PUT 과 같다.
+     */
+    @PatchMapping(value = "/{id}", consumes = EventPatch.MEDIA_TYPE_VALUE)
+    @SqlBudget(statements = 2)
+    public ResponseEntity<?> patchEvent(@PathVariable Integer id,
+                                        @RequestBody JsonNode patch,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
-        this.eventValidator.validate(eventDto, errors);
-        if (errors.hasErrors()) {
-            return ResponseEntity.badRequest().body(errorResource);
+        EventPatch eventPatch = new EventPatch(patch);
+        return update(id, ifMatch, existingEvent -> {
+            EventDto eventDto = this.eventMapper.toEventDto(existingEvent);
+            Errors errors = eventPatch.applyTo(eventDto);
+            if (errors != null) {
+                // 모르는 필드 이름이 메트릭 태그로 쌓이지 않도록 세지 않는다.
+                return errors;
+            }
+            errors = this.eventValidator.validate(eventDto, eventPatch.fields());
+            if (errors == null) {
+                errors = eventPatch.checkStatus(existingEvent.getEventStatus(), eventDto, LocalDateTime.now());
+            }
+            if (errors != null) {
+                this.eventMetrics.validationFailed(errors);
+                return errors;
+            }
+
+            this.eventMetrics.getUpdateEvent().record(() -> this.eventMapper.updateEvent(eventDto, existingEvent));
+            eventPatch.applyTo(existingEvent);
+            existingEvent.update();
+            return null;
+        });
+    }
+
+    /**
+     * 조회부터 저장까지 EventUpdateService 의 트랜잭션 하나에서 한다. 커밋 때 버전 검사에 걸리면 412.
+     */
+    private ResponseEntity<?> update(Integer id, String ifMatch, Function<Event, Errors> change) {
+        EventUpdateService.Result result;
+        try {
+            result = this.eventUpdateService.update(id, currentETag -> ifMatch == null || matches(ifMatch, currentETag), change);
+        } catch (OptimisticLockingFailureException e) {
+            return preconditionFailed(null);
         }
 
-        Event existingEvent = optionalEvent.get();
-        this.modelMapper.map(eventDto, existingEvent);
-        Event savedEvent = this.eventRepository.save(existingEvent);
+        return switch (result.status()) {
+            case NOT_FOUND -> ResponseEntity.notFound().build();
+            case PRECONDITION_FAILED -> preconditionFailed(result.eTag());
+            case INVALID -> badRequest(result.errors());
+            case UPDATED -> {
+                EventResource eventResource = new EventResource(result.event(), this.eventLinks.current());
+                eventResource.add(EventLinks.UPDATE_PROFILE);
+                yield ResponseEntity.ok()
+                        .eTag(result.eTag())
+                        .body(eventResource);
+            }
+        };
+    }
 
-        EventResource eventResource = new EventResource(savedEvent);
-        eventResource.add(
-                Link.of("/docs/index.html#resources-events-update").withRel("profile"));
+    /**
+     * id 목록의 이벤트를 한번에 읽어서 id 목록의 순서대로 돌려준다. 그 사이에 없어진 이벤트는 빠진다.
+     */
+    private List<EventView> findViewsInOrder(int[] ids) {
+        if (ids.length == 0) {
+            return List.of();
+        }
+        List<Integer> idList = Arrays.stream(ids).boxed().toList();
+        Map<Integer, EventView> events = new HashMap<>();
+        this.eventRepository.findViews((root, query, cb) -> root.get("id").in(idList), Sort.unsorted(), ids.length)
+                .forEach(event -> events.put(event.id(), event));
+        return idList.stream()
+                .map(events::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
 
-        return ResponseEntity.ok(eventResource);
+    /**
+     * Prefer 헤더의 선호 중에 respond-async 가 있는지. 선호 뒤의 파라미터(; ...)는 보지 않는다.
+     */
+    private static boolean respondAsync(String prefer) {
+        if (prefer == null) {
+            return false;
+        }
+        for (String preference : prefer.split(",")) {
+            int parameters = preference.indexOf(';');
+            String token = (parameters < 0 ? preference : preference.substring(0, parameters)).trim();
+            if (token.equalsIgnoreCase(RESPOND_ASYNC)) {
+                return true;
+            }
+        }
+        return false;
+    }
 
+    /**
+     * If-Match 는 강한 비교만 한다. W/ 로 시작하는 약한 ETag 는 맞지 않는 것으로 본다.
+     */
+    private static boolean matches(String ifMatch, String eTag) {
+        for (String candidate : ifMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || trimmed.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
 
+    private static ResponseEntity<?> preconditionFailed(String currentETag) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.PRECONDITION_FAILED);
+        if (currentETag != null) {
+            response.eTag(currentETag);
+        }
+        return response.build();
+    }
+
+    private ResponseEntity<?> badRequest(Errors errors) {
+        EntityModel<Errors> errorResource = EntityModel.of(errors);
+        errorResource.add(this.eventLinks.current().getIndex());
+        return ResponseEntity.badRequest().body(errorResource);
     }
 }
@@ -1,20 +1,22 @@
 package com.example.demoinflearnrestapi.events.controller;
 
-import org.springframework.hateoas.EntityModel;
+import com.example.demoinflearnrestapi.events.EventLinks;
+import lombok.RequiredArgsConstructor;
 import org.springframework.hateoas.RepresentationModel;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-
 @RestController
+@RequiredArgsConstructor
 public class IndexController {
 
+    private final EventLinks eventLinks;
+
     @GetMapping("/api")
     public RepresentationModel<?> index() {
 
         var index = new RepresentationModel<>();
-        index.add(linkTo(EventController.class).withRel("events"));
+        index.add(this.eventLinks.current().getEvents());
         return index;
     }
 }
@@ -0,0 +1,58 @@
+-- 엔티티(Account, Event, Enrollment)와 같은 스키마. fast-startup 프로파일은 이 마이그레이션을 적용하고 ddl-auto=validate 로 맞는지만 본다.
+-- 엔티티를 바꾸면 새 버전(V2__...)을 추가한다. 이미 적용된 파일은 고치지 않는다.
+
+create sequence account_seq start with 1 increment by 50;
+create sequence event_seq start with 1 increment by 50;
+create sequence enrollment_seq start with 1 increment by 50;
+
+create table account (
+    id integer not null,
+    email varchar(255),
+    password varchar(255),
+    primary key (id),
+    constraint uk_account_email unique (email)
+);
+
+create table account_roles (
+    account_id integer not null,
+    roles varchar(255) check (roles in ('ADMIN', 'USER')),
+    constraint fk_account_roles_account foreign key (account_id) references account
+);
+
+create table event (
+    id integer not null,
+    version integer,
+    name varchar(255),
+    description varchar(255),
+    begin_enrollment_date_time timestamp(6),
+    close_enrollment_date_time timestamp(6),
+    begin_event_date_time timestamp(6),
+    end_event_date_time timestamp(6),
+    location varchar(255),
+    base_price integer not null,
+    max_price integer not null,
+    limit_of_enrollment integer not null,
+    offline boolean not null,
+    free boolean not null,
+    event_status varchar(255) check (event_status in ('DRAFT', 'PUBLISHED', 'BEGAN_ENROLLMENT')),
+    manager_id integer,
+    primary key (id),
+    constraint fk_event_manager foreign key (manager_id) references account
+);
+
+create index idx_event_status_begin_event on event (event_status, begin_event_date_time);
+create index idx_event_status_base_price on event (event_status, base_price);
+create index idx_event_offline_free_begin_event on event (offline, free, begin_event_date_time);
+create index idx_event_begin_event on event (begin_event_date_time);
+create index idx_event_base_price on event (base_price);
+
+create table enrollment (
+    id integer not null,
+    event_id integer not null,
+    enrolled_by varchar(255),
+    enrolled_at timestamp(6),
+    primary key (id),
+    constraint fk_enrollment_event foreign key (event_id) references event
+);
+
+create index idx_enrollment_event on enrollment (event_id);
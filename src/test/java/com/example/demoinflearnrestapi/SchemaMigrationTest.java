@@ -0,0 +1,55 @@
+package com.example.demoinflearnrestapi;
+
+import com.example.demoinflearnrestapi.events.EventDto;
+import com.example.demoinflearnrestapi.events.common.BaseControllerTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// fast-startup 프로파일처럼 마이그레이션으로 스키마를 만들고 ddl-auto=validate 로 띄운다. 엔티티와 마이그레이션이 어긋나면 컨텍스트가 뜨지 않는다.
+@ActiveProfiles("fast-startup")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:migrationdb;MODE=PostgreSQL",
+        "spring.datasource.hikari.jdbc-url=jdbc:h2:mem:migrationdb;MODE=PostgreSQL"})
+public class SchemaMigrationTest extends BaseControllerTest {
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("마이그레이션으로 만든 스키마가 엔티티와 맞고 이벤트를 저장할 수 있다")
+    public void migratedSchemaMatchesEntities() throws Exception {
+        assertThat(this.jdbcTemplate.queryForObject(
+                "select count(*) from \"flyway_schema_history\" where \"success\"", Integer.class)).isPositive();
+
+        LocalDateTime begin = LocalDateTime.now().plusDays(1);
+        EventDto eventDto = EventDto.builder()
+                .name("migration")
+                .description("REST API Development with Spring")
+                .beginEnrollmentDateTime(begin)
+                .closeEnrollmentDateTime(begin.plusDays(1))
+                .beginEventDateTime(begin.plusDays(2))
+                .endEventDateTime(begin.plusDays(3))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .build();
+        this.mockMvc.perform(post("/api/events")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(this.objectMapper.writeValueAsString(eventDto)))
+                .andExpect(status().isCreated());
+        this.mockMvc.perform(get("/api"))
+                .andExpect(status().isOk());
+    }
+}
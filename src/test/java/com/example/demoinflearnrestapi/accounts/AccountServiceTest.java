@@ -1,9 +1,17 @@
 package com.example.demoinflearnrestapi.accounts;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
 import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -28,6 +36,12 @@ class AccountServiceTest {
     @Autowired
     PasswordEncoder passwordEncoder;
 
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
     @Test
     public void findByUsername() {
         // Given
@@ -50,6 +64,99 @@ class AccountServiceTest {
         assertThat(this.passwordEncoder.matches(password, userDetails.getPassword())).isTrue();
     }
 
+    @Test
+    @DisplayName("두 번째 조회부터는 DB 를 읽지 않고, 돌려준 UserDetails 의 비밀번호를 지워도 캐시는 그대로다")
+    public void loadUserByUsernameFromCache() {
+        // Given
+        String email = "cached@email.com";
+        this.accountService.saveAccount(Account.builder()
+                .email(email)
+                .password("cached")
+                .roles(Set.of(AccountRole.USER))
+                .build());
+        this.accountService.loadUserByUsername(email);
+        Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        double hits = userDetailsCacheHits();
+
+        // When
+        UserDetails first = this.accountService.loadUserByUsername(" Cached@Email.com ");
+        ((CredentialsContainer) first).eraseCredentials();
+        UserDetails second = this.accountService.loadUserByUsername(email);
+
+        // Then
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(userDetailsCacheHits()).isEqualTo(hits + 2);
+        assertThat(this.passwordEncoder.matches("cached", second.getPassword())).isTrue();
+        assertThat(second.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLEUSER");
+    }
+
+    @Test
+    @DisplayName("saveAccount 로 바꾸면 캐시된 UserDetails 가 지워진다")
+    public void saveAccountEvictsUserDetails() {
+        // Given
+        String email = "evicted@email.com";
+        Account account = this.accountService.saveAccount(Account.builder()
+                .email(email)
+                .password("before")
+                .roles(Set.of(AccountRole.USER))
+                .build());
+        this.accountService.loadUserByUsername(email);
+
+        // When
+        account.setPassword("after");
+        account.setRoles(Set.of(AccountRole.ADMIN, AccountRole.USER));
+        this.accountService.saveAccount(account);
+
+        // Then
+        UserDetails userDetails = this.accountService.loadUserByUsername(email);
+        assertThat(this.passwordEncoder.matches("after", userDetails.getPassword())).isTrue();
+        assertThat(userDetails.getAuthorities()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("이메일을 바꾸면 이전 이메일로 캐시된 UserDetails 도 지워져서 이전 이메일로는 찾을 수 없다")
+    public void saveAccountEvictsPreviousEmail() {
+        // Given
+        String email = "before-change@email.com";
+        Account account = this.accountService.saveAccount(Account.builder()
+                .email(email)
+                .password("pass")
+                .roles(Set.of(AccountRole.USER))
+                .build());
+        this.accountService.loadUserByUsername(email);
+
+        // When
+        account.setEmail("after-change@email.com");
+        account.setPassword("pass");
+        this.accountService.saveAccount(account);
+
+        // Then
+        assertThatThrownBy(() -> this.accountService.loadUserByUsername(email))
+                .isInstanceOf(UsernameNotFoundException.class);
+        assertThat(this.accountService.loadUserByUsername("after-change@email.com").getUsername())
+                .isEqualTo("after-change@email.com");
+    }
+
+    @Test
+    @DisplayName("정규화한 이메일이 같은 계정은 만들 수 없다")
+    public void duplicateEmail() {
+        // Given
+        this.accountService.saveAccount(Account.builder()
+                .email("unique@email.com")
+                .password("pass")
+                .roles(Set.of(AccountRole.USER))
+                .build());
+
+        // When & Then
+        assertThatThrownBy(() -> this.accountService.saveAccount(Account.builder()
+                .email(" Unique@EMAIL.com")
+                .password("pass")
+                .roles(Set.of(AccountRole.USER))
+                .build()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
     @Test
     public void findByUsernameFail() {
 
@@ -61,6 +168,14 @@ class AccountServiceTest {
                 .isInstanceOf(UsernameNotFoundException.class);
     }
 
+    private double userDetailsCacheHits() {
+        return this.meterRegistry.get("cache.gets")
+                .tag("cache", "userDetails")
+                .tag("result", "hit")
+                .functionCounter()
+                .count();
+    }
+
 
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,147 @@
+package com.example.demoinflearnrestapi.configs;
+
+import com.example.demoinflearnrestapi.accounts.Account;
+import com.example.demoinflearnrestapi.accounts.AccountRepository;
+import com.example.demoinflearnrestapi.accounts.AccountRole;
+import com.example.demoinflearnrestapi.events.common.BaseControllerTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+
+public class BoundedPasswordEncoderTest extends BaseControllerTest {
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    BoundedPasswordEncoder passwordEncoder;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("스레드와 대기열이 모두 차면 기다리지 않고 거절한다")
+    public void rejectsWhenSaturated() throws Exception {
+        // Given : 1 스레드, 대기열 1
+        MeterRegistry registry = new SimpleMeterRegistry();
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                running.countDown();
+                try {
+                    return release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }, 4, 1, 1, registry);
+
+        try {
+            CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(() -> encoder.matches("a", "a"));
+            assertThat(running.await(10, TimeUnit.SECONDS)).isTrue();
+            CompletableFuture<Boolean> second = CompletableFuture.supplyAsync(() -> encoder.matches("b", "b"));
+            while (registry.get("password.hashing.queue").gauge().value() == 0) {
+                Thread.onSpinWait();
+            }
+
+            // When & Then
+            assertThatThrownBy(() -> encoder.encode("c"))
+                    .isInstanceOf(PasswordHashingRejectedException.class);
+            assertThat(registry.get("password.hashing.rejected").counter().count()).isEqualTo(1);
+            assertThat(registry.get("password.hashing.active").gauge().value()).isEqualTo(1);
+
+            release.countDown();
+            assertThat(first.get(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(second.get(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(registry.get("password.hashing").timer().count()).isEqualTo(2);
+            assertThat(registry.get("password.hashing").timer().max(TimeUnit.MILLISECONDS)).isGreaterThan(0);
+        } finally {
+            release.countDown();
+            encoder.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("저장된 해시의 cost 가 설정과 다를 때만 다시 해시한다")
+    public void upgradeEncoding() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(5, 1, 1, new SimpleMeterRegistry());
+        try {
+            assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("pass"))).isTrue();
+            assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("pass"))).isTrue();
+            assertThat(encoder.upgradeEncoding(encoder.encode("pass"))).isFalse();
+            assertThat(encoder.upgradeEncoding("{noop}pass")).isFalse();
+            assertThat(encoder.upgradeEncoding(null)).isFalse();
+        } finally {
+            encoder.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("거절되면 503 과 Retry-After 로 응답한다")
+    public void rejectedRequestGets503() throws Exception {
+        // Given
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setRetryAfter(Duration.ofSeconds(3));
+        PasswordHashingRejectedFilter filter = new PasswordHashingRejectedFilter(properties);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When : 컨트롤러에서 나온 예외는 ServletException 으로 감싸져서 온다.
+        filter.doFilter(new MockHttpServletRequest("POST", "/login"), response, (req, res) -> {
+            throw new ServletException(new PasswordHashingRejectedException("saturated"));
+        });
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("3");
+    }
+
+    @Test
+    @DisplayName("다른 cost 로 저장된 비밀번호는 로그인에 성공할 때 설정된 cost 로 다시 해시된다")
+    public void rehashOnLogin() throws Exception {
+        // Given : 테스트 설정의 cost 는 4
+        String email = "rehash@email.com";
+        Account account = this.accountRepository.save(Account.builder()
+                .email(email)
+                .password(new BCryptPasswordEncoder(5).encode("pass"))
+                .roles(Set.of(AccountRole.USER))
+                .build());
+
+        // When
+        this.mockMvc.perform(post("/login")
+                        .param("username", email)
+                        .param("password", "pass"))
+                .andExpect(redirectedUrl("/"));
+
+        // Then
+        String rehashed = this.accountRepository.findById(account.getId()).orElseThrow().getPassword();
+        assertThat(rehashed).startsWith("$2a$04$");
+        assertThat(this.passwordEncoder.matches("pass", rehashed)).isTrue();
+        assertThat(this.meterRegistry.get("password.hashing").timer().count()).isPositive();
+    }
+}
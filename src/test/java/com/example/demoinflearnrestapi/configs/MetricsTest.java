@@ -0,0 +1,80 @@
+package com.example.demoinflearnrestapi.configs;
+
+import com.example.demoinflearnrestapi.events.EventDto;
+import com.example.demoinflearnrestapi.events.common.BaseControllerTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.MediaType;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureObservability
+public class MetricsTest extends BaseControllerTest {
+
+    @Test
+    @DisplayName("스크레이프 결과에 엔드포인트 히스토그램, 커넥션 풀, Hibernate, 매핑 / 검증, 비밀번호 해시, 캐시 메트릭이 있고 태그에 id 가 없다")
+    public void prometheus() throws Exception {
+        // Given
+        EventDto eventDto = EventDto.builder()
+                .name("Spring")
+                .description("REST API Development with Spring")
+                .beginEnrollmentDateTime(LocalDateTime.of(2010, 11, 7, 11, 11, 30))
+                .closeEnrollmentDateTime(LocalDateTime.of(2010, 11, 10, 11, 11, 30))
+                .beginEventDateTime(LocalDateTime.of(2010, 11, 12, 11, 11, 30))
+                .endEventDateTime(LocalDateTime.of(2010, 11, 14, 11, 11, 30))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("강남역 D2 스타텁 팩토리")
+                .build();
+        this.mockMvc.perform(post("/api/events")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaTypes.HAL_JSON)
+                        .content(this.objectMapper.writeValueAsString(eventDto)))
+                .andExpect(status().isCreated());
+        eventDto.setBasePrice(10000);
+        this.mockMvc.perform(post("/api/events")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(this.objectMapper.writeValueAsString(eventDto)))
+                .andExpect(status().isBadRequest());
+        this.mockMvc.perform(get("/api/events/{id}", 123456))
+                .andExpect(status().isNotFound());
+        this.mockMvc.perform(get("/api"))
+                .andExpect(status().isOk());
+
+        // When
+        String scrape = this.mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Then
+        assertThat(scrape)
+                .containsPattern("http_server_requests_seconds_bucket\\{.*status=\"201\",uri=\"/api/events\"")
+                .containsPattern("http_server_requests_seconds_bucket\\{.*status=\"400\",uri=\"/api/events\"")
+                .containsPattern("http_server_requests_seconds_count\\{.*status=\"404\",uri=\"/api/events/\\{id}\"")
+                .containsPattern("http_server_requests_seconds_count\\{.*status=\"200\",uri=\"/api\"")
+                .doesNotContain("123456")
+                .contains("hikaricp_connections_acquire_seconds_bucket")
+                .contains("hikaricp_connections_usage_seconds_bucket")
+                .containsPattern("hibernate_sessions_open_total(\\{.*})? [1-9]")
+                .contains("hibernate_query_executions_total")
+                .contains("hibernate_entities_inserts_total")
+                .contains("hibernate_second_level_cache_requests_total{result=\"hit\"")
+                .containsPattern("events_mapping_seconds_count\\{.*operation=\"toEvent\".*} [1-9]")
+                .contains("events_validation_failures_total{code=\"wrongValue\",field=\"basePrice\"")
+                .contains("events_validation_failures_total{code=\"wrongPrices\",field=\"global\"")
+                .contains("password_hashing_queue ")
+                .contains("password_hashing_active ")
+                .contains("password_hashing_seconds_count")
+                .contains("password_hashing_rejected_total")
+                .contains("cache_gets_total{cache=\"eventResponses\",result=\"hit\"")
+                .contains("cache_gets_total{cache=\"userDetails\",result=\"hit\"");
+    }
+}
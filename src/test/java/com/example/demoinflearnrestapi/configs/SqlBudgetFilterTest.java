@@ -0,0 +1,98 @@
+package com.example.demoinflearnrestapi.configs;
+
+import com.example.demoinflearnrestapi.common.SqlBudget;
+import com.example.demoinflearnrestapi.events.common.BaseControllerTest;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class SqlBudgetFilterTest extends BaseControllerTest {
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("같은 모양의 SQL 이 max-repeats 보다 많이 나가면 N+1 로 잡는다")
+    public void repeatedShape() {
+        // Given
+        SqlBudgetProperties properties = new SqlBudgetProperties();
+        properties.setMaxRepeats(2);
+        properties.setLogSampleRate(1);
+        properties.setFailOnExceed(true);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SqlBudgetFilter filter = new SqlBudgetFilter(properties, registry);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/events");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/events");
+        SqlStatementRecorder.Inspector inspector = new SqlStatementRecorder.Inspector();
+
+        // When & Then
+        assertThatThrownBy(() -> filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            inspector.inspect("select e1_0.id from event e1_0");
+            for (int i = 0; i < 3; i++) {
+                inspector.inspect("select a1_0.id from account a1_0 where a1_0.id=?");
+            }
+        }))
+                .isInstanceOf(SqlBudgetExceededException.class)
+                .hasMessageContaining("(repeats)")
+                .hasMessageContaining("3x select a1_0.id from account a1_0 where a1_0.id=?");
+        assertThat(registry.get("sql.budget.exceeded").tag("reason", "repeats").counter().count()).isEqualTo(1);
+        assertThat(registry.get("sql.statements").tag("uri", "/api/events").summary().totalAmount()).isEqualTo(4);
+
+        // 요청 밖에서는 세지 않는다.
+        assertThat(inspector.inspect("select 1")).isEqualTo("select 1");
+    }
+
+    @Test
+    @DisplayName("핸들러의 @SqlBudget 이 기본 예산보다 우선한다")
+    public void handlerBudget() throws Exception {
+        // Given
+        SqlBudgetProperties properties = new SqlBudgetProperties();
+        properties.setFailOnExceed(true);
+        SqlBudgetFilter filter = new SqlBudgetFilter(properties, new SimpleMeterRegistry());
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/budgeted");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE,
+                new HandlerMethod(new Budgeted(), Budgeted.class.getMethod("handle")));
+        SqlStatementRecorder.Inspector inspector = new SqlStatementRecorder.Inspector();
+
+        // When & Then
+        assertThatThrownBy(() -> filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            inspector.inspect("select 1");
+            inspector.inspect("select 2");
+        }))
+                .isInstanceOf(SqlBudgetExceededException.class)
+                .hasMessageContaining("2 statements (max 1)");
+    }
+
+    @Test
+    @DisplayName("Hibernate 가 실행한 SQL 과 JDBC 시간이 uri 템플릿별로 남는다")
+    public void recordsHibernateStatements() throws Exception {
+        // When
+        this.mockMvc.perform(get("/api/events"))
+                .andExpect(status().isOk());
+
+        // Then
+        DistributionSummary statements = this.meterRegistry.get("sql.statements").tag("uri", "/api/events").summary();
+        assertThat(statements.count()).isPositive();
+        assertThat(statements.totalAmount()).isPositive();
+        assertThat(this.meterRegistry.get("sql.jdbc.time").tag("uri", "/api/events").timer().count()).isPositive();
+    }
+
+    static class Budgeted {
+
+        @SqlBudget(statements = 1)
+        public void handle() {
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.demoinflearnrestapi.configs;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "virtual-threads.enabled=true",
+        "virtual-threads.db-concurrency=3",
+        "virtual-threads.db-acquire-timeout=100ms"})
+@ActiveProfiles("test")
+public class VirtualThreadConfigTest {
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    VirtualThreadPinningMonitor pinningMonitor;
+
+    @Test
+    @DisplayName("허가 수보다 많이 빌리면 타임아웃 후 실패하고, close 하면 허가가 돌아온다")
+    public void limitsConcurrentConnections() throws Exception {
+        assertThat(this.dataSource).isInstanceOf(ConcurrencyLimitingDataSource.class);
+        ConcurrencyLimitingDataSource limiting = (ConcurrencyLimitingDataSource) this.dataSource;
+
+        List<Connection> connections = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            connections.add(this.dataSource.getConnection());
+        }
+        assertThat(limiting.availablePermits()).isZero();
+        assertThatThrownBy(this.dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+
+        Connection first = connections.get(0);
+        first.close();
+        first.close(); // 두번 닫아도 허가는 한번만 돌려준다.
+        assertThat(limiting.availablePermits()).isEqualTo(1);
+
+        for (Connection connection : connections.subList(1, 3)) {
+            connection.close();
+        }
+        assertThat(limiting.availablePermits()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("synchronized 안에서 블로킹한 가상 스레드가 잡힌다")
+    public void reportsPinnedVirtualThreads() throws Exception {
+        Object lock = new Object();
+        Thread thread = Thread.ofVirtual().start(() -> {
+            synchronized (lock) {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        thread.join();
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (this.pinningMonitor.pinnedEvents() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(this.pinningMonitor.pinnedEvents()).isPositive();
+    }
+}
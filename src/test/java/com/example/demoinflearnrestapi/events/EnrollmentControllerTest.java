@@ -0,0 +1,239 @@
+package com.example.demoinflearnrestapi.events;
+
+import com.example.demoinflearnrestapi.events.common.BaseControllerTest;
+import com.jayway.jsonpath.JsonPath;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class EnrollmentControllerTest extends BaseControllerTest {
+
+    private static final MediaType MERGE_PATCH = MediaType.parseMediaType(EventPatch.MEDIA_TYPE_VALUE);
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    EnrollmentProperties enrollmentProperties;
+
+    @Autowired
+    DataSource dataSource;
+
+    @Test
+    @DisplayName("한 이벤트에 수천 명이 동시에 참가해도 limitOfEnrollment 만큼만 참가되고 모두 저장된다")
+    public void concurrentEnrollments() throws Exception {
+        // Given
+        int limit = 500;
+        int enrollers = 2_000;
+        Event event = saveEvent(EventStatus.BEGAN_ENROLLMENT, limit);
+        ExecutorService executor = Executors.newFixedThreadPool(200);
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<Integer>> statuses = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < enrollers; i++) {
+            statuses.add(executor.submit(() -> {
+                ready.await();
+                return this.mockMvc.perform(post("/api/events/{id}/enrollments", event.getId())
+                                .accept(MediaTypes.HAL_JSON))
+                        .andReturn().getResponse().getStatus();
+            }));
+        }
+        long start = System.nanoTime();
+        ready.countDown();
+        List<Integer> results = new ArrayList<>();
+        for (Future<Integer> status : statuses) {
+            results.add(status.get(60, TimeUnit.SECONDS));
+        }
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+
+        // Then
+        Map<Integer, Long> counts = results.stream().collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        System.out.printf("%d enrollers on one event: %s in %d ms (%.0f req/s)%n", enrollers, counts,
+                TimeUnit.NANOSECONDS.toMillis(elapsed), enrollers / (elapsed / 1e9));
+        assertThat(counts).containsOnlyKeys(201, 409);
+        assertThat(counts.get(201)).isEqualTo(limit);
+        assertThat(this.enrollmentRepository.countByEventId(event.getId())).isEqualTo(limit);
+    }
+
+    @Test
+    @DisplayName("자리가 없으면 409, limit 을 늘리면 다시 참가할 수 있다")
+    public void fullThenRaised() throws Exception {
+        // Given
+        Event event = saveEvent(EventStatus.BEGAN_ENROLLMENT, 1);
+        this.mockMvc.perform(post("/api/events/{id}/enrollments", event.getId()))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("id").exists())
+                .andExpect(jsonPath("eventId").value(event.getId()))
+                .andExpect(jsonPath("_links.event").exists())
+                .andExpect(jsonPath("_links.profile").exists());
+
+        // When & Then
+        this.mockMvc.perform(post("/api/events/{id}/enrollments", event.getId()))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("errors[0].code").value("full"));
+
+        EventDto eventDto = this.modelMapper.map(event, EventDto.class);
+        eventDto.setLimitOfEnrollment(2);
+        this.mockMvc.perform(put("/api/events/{id}", event.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(this.objectMapper.writeValueAsString(eventDto)))
+                .andExpect(status().isOk());
+
+        this.mockMvc.perform(post("/api/events/{id}/enrollments", event.getId()))
+                .andExpect(status().isCreated());
+        this.mockMvc.perform(post("/api/events/{id}/enrollments", event.getId()))
+                .andExpect(status().isConflict());
+        assertThat(this.enrollmentRepository.countByEventId(event.getId())).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("모집 중이 아니면 409 closed, 없는 이벤트는 404")
+    public void closedOrMissing() throws Exception {
+        Event draft = saveEvent(EventStatus.DRAFT, 10);
+        this.mockMvc.perform(post("/api/events/{id}/enrollments", draft.getId()))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("errors[0].code").value("closed"));
+
+        this.mockMvc.perform(post("/api/events/{id}/enrollments", 987654))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("PATCH 로 모집을 멈추면 409 closed, 허용되지 않은 상태 변경은 400")
+    public void patchedAwayFromEnrollment() throws Exception {
+        // Given
+        Event event = saveEvent(EventStatus.BEGAN_ENROLLMENT, 10);
+        this.mockMvc.perform(post("/api/events/{id}/enrollments", event.getId()))
+                .andExpect(status().isCreated());
+
+        // 모집 시작 시각을 미루지 않고는 되돌릴 수 없다.
+        this.mockMvc.perform(patch("/api/events/{id}", event.getId())
+                        .contentType(MERGE_PATCH)
+                        .content("{\"eventStatus\":\"PUBLISHED\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0].field").value("eventStatus"))
+                .andExpect(jsonPath("errors[0].code").value("wrongValue"));
+        this.mockMvc.perform(patch("/api/events/{id}", event.getId())
+                        .contentType(MERGE_PATCH)
+                        .content("{\"eventStatus\":\"DRAFT\"}"))
+                .andExpect(status().isBadRequest());
+
+        // When
+        String beginEnrollment = LocalDateTime.now().plusHours(12).withNano(0).toString();
+        this.mockMvc.perform(patch("/api/events/{id}", event.getId())
+                        .contentType(MERGE_PATCH)
+                        .content("{\"beginEnrollmentDateTime\":\"" + beginEnrollment + "\",\"eventStatus\":\"PUBLISHED\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("eventStatus").value("PUBLISHED"));
+
+        // Then
+        this.mockMvc.perform(post("/api/events/{id}/enrollments", event.getId()))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("errors[0].code").value("closed"));
+        assertThat(this.enrollmentRepository.countByEventId(event.getId())).isEqualTo(1);
+
+        Event draft = saveEvent(EventStatus.DRAFT, 10);
+        this.mockMvc.perform(patch("/api/events/{id}", draft.getId())
+                        .contentType(MERGE_PATCH)
+                        .content("{\"eventStatus\":\"BEGAN_ENROLLMENT\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0].field").value("eventStatus"));
+    }
+
+    @Test
+    @DisplayName("제한 시간 안에 저장되지 않으면 503 대신 202 와 상태 링크를 받고, 참가는 한 번만 저장된다")
+    public void acceptedWhenCommitIsSlow() throws Exception {
+        // Given: 자리는 메모리에 올라가 있고, 커넥션을 모두 잡아서 writer 가 저장하지 못하게 한다.
+        Event event = saveEvent(EventStatus.BEGAN_ENROLLMENT, 10);
+        this.mockMvc.perform(post("/api/events/{id}/enrollments", event.getId()))
+                .andExpect(status().isCreated());
+        Duration timeout = this.enrollmentProperties.getTimeout();
+        this.enrollmentProperties.setTimeout(Duration.ofMillis(100));
+        List<Connection> connections = new ArrayList<>();
+        String location;
+        try {
+            HikariDataSource hikari = this.dataSource.unwrap(HikariDataSource.class);
+            for (int i = 0; i < hikari.getMaximumPoolSize(); i++) {
+                connections.add(hikari.getConnection());
+            }
+
+            // When
+            location = this.mockMvc.perform(post("/api/events/{id}/enrollments", event.getId()))
+                    .andExpect(status().isAccepted())
+                    .andExpect(header().doesNotExist(HttpHeaders.RETRY_AFTER))
+                    .andExpect(jsonPath("eventId").value(event.getId()))
+                    .andExpect(jsonPath("status").value("PENDING"))
+                    .andExpect(jsonPath("_links.self").exists())
+                    .andExpect(jsonPath("_links.event").exists())
+                    .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+        } finally {
+            for (Connection connection : connections) {
+                connection.close();
+            }
+            this.enrollmentProperties.setTimeout(timeout);
+        }
+
+        // Then
+        assertThat(location).contains("/api/events/" + event.getId() + "/enrollments/pending/");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        String status;
+        do {
+            Thread.sleep(20);
+            status = JsonPath.read(this.mockMvc.perform(get(location))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString(), "$.status");
+        } while (status.equals("PENDING") && System.nanoTime() < deadline);
+        assertThat(status).isEqualTo("ENROLLED");
+        this.mockMvc.perform(get(location))
+                .andExpect(jsonPath("enrollment.id").exists())
+                .andExpect(jsonPath("enrollment.eventId").value(event.getId()));
+        assertThat(this.enrollmentRepository.countByEventId(event.getId())).isEqualTo(2);
+
+        this.mockMvc.perform(get(location.replace("/events/" + event.getId() + "/", "/events/987654/")))
+                .andExpect(status().isNotFound());
+    }
+
+    private Event saveEvent(EventStatus status, int limitOfEnrollment) {
+        LocalDateTime now = LocalDateTime.now();
+        return this.eventRepository.save(Event.builder()
+                .name("enrollment")
+                .description("REST API Development with Spring")
+                .beginEnrollmentDateTime(now.minusDays(1))
+                .closeEnrollmentDateTime(now.plusDays(1))
+                .beginEventDateTime(now.plusDays(2))
+                .endEventDateTime(now.plusDays(3))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(limitOfEnrollment)
+                .location("강남역 D2 스타텁 팩토리")
+                .eventStatus(status)
+                .build());
+    }
+}
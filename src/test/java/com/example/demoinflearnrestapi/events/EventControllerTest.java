@@ -1,27 +1,43 @@
 package com.example.demoinflearnrestapi.events;
 
+import com.example.demoinflearnrestapi.accounts.Account;
+import com.example.demoinflearnrestapi.accounts.AccountRepository;
+import com.example.demoinflearnrestapi.accounts.AccountRole;
 import com.example.demoinflearnrestapi.events.common.BaseControllerTest;
 import com.example.demoinflearnrestapi.events.common.RestDocsConfiguration;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.DocumentContext;
+import jakarta.persistence.EntityManagerFactory;
+import com.jayway.jsonpath.JsonPath;
 import org.hamcrest.Matchers;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.restdocs.AutoConfigureRestDocs;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
 import org.springframework.hateoas.MediaTypes;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
@@ -41,6 +57,15 @@ public class EventControllerTest extends BaseControllerTest {
     @Autowired
     EventRepository eventRepository;
 
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    EventTextIndexer eventTextIndexer;
+
     @Test
     @DisplayName("정상적으로 이벤트를 생성하는 test")
     public void createEvent() throws Exception {
@@ -260,6 +285,230 @@ public class EventControllerTest extends BaseControllerTest {
                 .andDo(document("query-events"));
     }
 
+    @Test
+    @DisplayName("커서(after) 모드로 이벤트 목록을 끝까지 조회하기")
+    public void queryEventsWithCursor() throws Exception {
+        // Given
+        IntStream.range(0, 25).forEach(this::generateEvent);
+
+        // When & Then
+        List<Integer> ids = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        String next = "/api/events?after=&size=10&sort=name,DESC";
+        while (next != null) {
+            String body = this.mockMvc.perform(get(next))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("page").doesNotExist())
+                    .andExpect(jsonPath("_links.self").exists())
+                    .andExpect(jsonPath("_links.profile").exists())
+                    .andReturn().getResponse().getContentAsString();
+
+            DocumentContext json = JsonPath.parse(body);
+            ids.addAll(json.read("$._embedded.eventList[*].id"));
+            names.addAll(json.read("$._embedded.eventList[*].name"));
+            List<String> nextLinks = json.read("$._links..next.href");
+            next = nextLinks.isEmpty() ? null : nextLinks.get(0);
+        }
+
+        assertThat(ids).hasSize((int) this.eventRepository.count())
+                .doesNotHaveDuplicates();
+        assertThat(names).isSortedAccordingTo(Comparator.reverseOrder());
+    }
+
+    @Test
+    @DisplayName("상태, 무료/오프라인 여부, 가격, 날짜로 이벤트 목록 거르기")
+    public void queryEventsWithFilter() throws Exception {
+        // Given : 다른 테스트의 이벤트와 겹치지 않는 날짜에 만든다.
+        LocalDateTime begin = LocalDateTime.of(2040, 5, 1, 10, 0);
+        IntStream.range(0, 12).forEach(i -> {
+            Event event = this.generateEvent(i);
+            event.setBeginEventDateTime(begin.plusDays(i));
+            event.setEventStatus(i % 2 == 0 ? EventStatus.PUBLISHED : EventStatus.DRAFT);
+            event.setBasePrice(i * 100);
+            event.setFree(i == 0);
+            this.eventRepository.save(event);
+        });
+
+        // When & Then : 0, 2, 4, 6, 8 중에서 basePrice 200 ~ 600
+        // 페이지 링크가 필터를 유지하는지 보려면 파라미터가 쿼리 스트링에 있어야 한다.
+        String body = this.mockMvc.perform(get("/api/events?eventStatus=PUBLISHED&free=false&offline=true"
+                        + "&minBasePrice=200&maxBasePrice=600"
+                        + "&beginEventFrom=2040-05-01T00:00:00&beginEventTo=2040-05-09T00:00:00"
+                        + "&size=2&sort=basePrice"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("page.totalElements").value(3))
+                .andExpect(jsonPath("_embedded.eventList[*].basePrice", Matchers.contains(200, 400)))
+                .andExpect(jsonPath("_links.next.href", Matchers.allOf(
+                        Matchers.containsString("eventStatus=PUBLISHED"),
+                        Matchers.containsString("beginEventTo=2040-05-09T00:00:00"),
+                        Matchers.containsString("page=1"))))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(JsonPath.<List<String>>read(body, "$._embedded.eventList[*].eventStatus")).containsOnly("PUBLISHED");
+
+        // 커서 모드에서도 같은 필터가 걸린다.
+        this.mockMvc.perform(get("/api/events")
+                        .param("after", "")
+                        .param("eventStatus", "DRAFT")
+                        .param("beginEventFrom", "2040-05-01T00:00:00")
+                        .param("beginEventTo", "2040-06-01T00:00:00")
+                        .param("sort", "basePrice,DESC"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.eventList[*].basePrice", Matchers.contains(1100, 900, 700, 500, 300, 100)));
+
+        this.mockMvc.perform(get("/api/events")
+                        .param("eventStatus", "CANCELED"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("이름과 설명의 단어로 검색하면 생성 / 수정이 바로 반영되고 점수 순으로 나온다")
+    public void searchEvents() throws Exception {
+        // Given
+        List<Integer> ids = new ArrayList<>();
+        for (String name : List.of("Webflux 워크숍", "Kafka Streams", "Webflux basics")) {
+            EventDto eventDto = this.generateEventDto(0);
+            eventDto.setName(name);
+            eventDto.setDescription("Reactive programming with " + name);
+            String body = this.mockMvc.perform(post("/api/events")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(this.objectMapper.writeValueAsString(eventDto)))
+                    .andExpect(status().isCreated())
+                    .andReturn().getResponse().getContentAsString();
+            ids.add(JsonPath.read(body, "$.id"));
+        }
+
+        // When : Kafka 이벤트 이름을 바꾼다.
+        EventDto kafka = this.generateEventDto(0);
+        kafka.setName("Webflux and Kafka");
+        kafka.setDescription("Reactive programming with Kafka");
+        this.mockMvc.perform(put("/api/events/{id}", ids.get(1))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(this.objectMapper.writeValueAsString(kafka)))
+                .andExpect(status().isOk());
+
+        // Then
+        this.mockMvc.perform(get("/api/events/search?q=webflux&size=2"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("page.totalElements").value(3))
+                .andExpect(jsonPath("_embedded.eventList[*].name", Matchers.contains("Webflux 워크숍", "Webflux basics")))
+                .andExpect(jsonPath("_embedded.eventList[0]._links.self").exists())
+                .andExpect(jsonPath("_links.next.href", Matchers.containsString("q=webflux")))
+                .andExpect(jsonPath("_links.profile").exists());
+
+        this.mockMvc.perform(get("/api/events/search").param("q", "Streams"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("page.totalElements").value(0));
+
+        this.mockMvc.perform(get("/api/events/search"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("시작할 때처럼 다시 색인하면 저장소에 직접 넣은 이벤트도 검색된다")
+    public void rebuildSearchIndex() throws Exception {
+        // Given : 컨트롤러를 거치지 않아서 색인되지 않은 이벤트
+        Event event = this.generateEvent(0);
+        event.setName("Hibernate internals");
+        this.eventRepository.save(event);
+        this.mockMvc.perform(get("/api/events/search").param("q", "internals"))
+                .andExpect(jsonPath("page.totalElements").value(0));
+
+        // When
+        this.eventTextIndexer.rebuild();
+
+        // Then
+        this.mockMvc.perform(get("/api/events/search").param("q", "internals"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.eventList[0].id").value(event.getId()));
+    }
+
+    @Test
+    @DisplayName("깨진 커서로 조회하면 400")
+    public void queryEventsWithBadCursor() throws Exception {
+        this.mockMvc.perform(get("/api/events")
+                        .param("after", "not-a-cursor")
+                        .param("sort", "name,DESC"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0].field").value("after"))
+                .andExpect(jsonPath("_links.index").exists());
+
+        this.mockMvc.perform(get("/api/events")
+                        .param("after", "")
+                        .param("sort", "location"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 30})
+    @DisplayName("목록 한 페이지는 페이지 크기와 관계없이 정해진 수의 쿼리로 읽는다")
+    public void queryEventsStatementCount(int size) throws Exception {
+        // Given
+        List<Account> managers = IntStream.range(0, 5)
+                .mapToObj(i -> this.accountRepository.save(Account.builder()
+                        .email("manager" + i + "-" + size + "@email.com")
+                        .password("pass")
+                        .roles(Set.of(AccountRole.ADMIN, AccountRole.USER))
+                        .build()))
+                .toList();
+        IntStream.range(0, 30).forEach(i -> {
+            Event event = this.generateEvent(i);
+            event.setManager(managers.get(i % managers.size()));
+            this.eventRepository.save(event);
+        });
+        Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // When & Then : 이벤트+manager join, count, roles IN 쿼리
+        statistics.clear();
+        this.mockMvc.perform(get("/api/events")
+                        .param("page", "0")
+                        .param("size", String.valueOf(size))
+                        .param("sort", "id,DESC"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.eventList[0].manager.email").exists())
+                .andExpect(jsonPath("_embedded.eventList[0].manager.password").doesNotExist());
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+
+        // 커서 모드는 count 가 없다.
+        statistics.clear();
+        this.mockMvc.perform(get("/api/events")
+                        .param("after", "")
+                        .param("size", String.valueOf(size))
+                        .param("sort", "id,DESC"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.eventList[0].manager.email").exists())
+                .andExpect(jsonPath("_embedded.eventList[0].manager.password").doesNotExist());
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+
+        Integer lastId = this.eventRepository.findAll(Sort.by("id").descending()).get(0).getId();
+        statistics.clear();
+        this.mockMvc.perform(get("/api/events/{id}", lastId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("manager.email").exists())
+                .andExpect(jsonPath("manager.password").doesNotExist());
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("모든 이벤트를 NDJSON 으로 내려받기")
+    public void exportEvents() throws Exception {
+        // Given
+        IntStream.range(0, 3).forEach(this::generateEvent);
+
+        // When & Then
+        String body = this.mockMvc.perform(get("/api/events/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        List<String> lines = body.lines().toList();
+        assertThat(body).endsWith("\n");
+        assertThat(lines).hasSize((int) this.eventRepository.count());
+        List<Integer> ids = lines.stream().map(line -> JsonPath.<Integer>read(line, "$.id")).toList();
+        assertThat(ids).isSorted();
+        assertThat(lines).noneMatch(line -> line.contains("version") || line.contains("password"));
+    }
+
     @Test
     @DisplayName("기존의 이벤트를 하나 조작하기")
     public void getEvent() throws Exception {
@@ -277,6 +526,35 @@ public class EventControllerTest extends BaseControllerTest {
                 .andDo(document("get-an-event"));
     }
 
+    @Test
+    @DisplayName("ETag 가 같으면 304, 수정하면 ETag 가 바뀐다")
+    public void getEventNotModified() throws Exception {
+        // Given
+        Event event = this.generateEvent(100);
+        String etag = this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When & Then
+        this.mockMvc.perform(get("/api/events/{id}", event.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        EventDto eventDto = this.modelMapper.map(event, EventDto.class);
+        eventDto.setName("Updated Event");
+        this.mockMvc.perform(put("/api/events/{id}", event.getId())
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(this.objectMapper.writeValueAsString(eventDto)))
+                .andExpect(status().isOk());
+
+        this.mockMvc.perform(get("/api/events/{id}", event.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, Matchers.not(etag)))
+                .andExpect(jsonPath("name").value("Updated Event"));
+    }
+
     @Test
     @DisplayName("없는 이벤트를 조회했을 때 404 응답받기")
     public void getEvent404() throws Exception {
@@ -308,6 +586,146 @@ public class EventControllerTest extends BaseControllerTest {
                 .andExpect(jsonPath("_links.self").exists());
     }
 
+    @Test
+    @DisplayName("manager 가 있는 이벤트를 수정해도 응답에 manager 가 들어간다")
+    public void updateEventWithManager() throws Exception {
+        // Given
+        Account manager = this.accountRepository.save(Account.builder()
+                .email("update-manager@email.com")
+                .password("pass")
+                .roles(Set.of(AccountRole.USER))
+                .build());
+        Event event = this.generateEvent(200);
+        event.setManager(manager);
+        event = this.eventRepository.save(event);
+        EventDto eventDto = this.modelMapper.map(event, EventDto.class);
+        eventDto.setName("Updated Event");
+
+        // When & Then
+        this.mockMvc.perform(put("/api/events/{id}", event.getId())
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(this.objectMapper.writeValueAsString(eventDto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("name").value("Updated Event"))
+                .andExpect(jsonPath("manager.email").value("update-manager@email.com"));
+    }
+
+    @Test
+    @DisplayName("If-Match 가 현재 ETag 와 다르면 412")
+    public void updateEventPreconditionFailed() throws Exception {
+        // Given
+        Event event = this.generateEvent(200);
+        String etag = this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        EventDto eventDto = this.modelMapper.map(event, EventDto.class);
+
+        // When & Then
+        eventDto.setName("first");
+        String newEtag = this.mockMvc.perform(put("/api/events/{id}", event.getId())
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(this.objectMapper.writeValueAsString(eventDto)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, Matchers.not(etag)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        eventDto.setName("second");
+        this.mockMvc.perform(put("/api/events/{id}", event.getId())
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(this.objectMapper.writeValueAsString(eventDto)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(header().string(HttpHeaders.ETAG, newEtag));
+
+        this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(header().string(HttpHeaders.ETAG, newEtag))
+                .andExpect(jsonPath("name").value("first"));
+    }
+
+    @Test
+    @DisplayName("조회 이후에 다른 수정이 커밋되면 저장할 때 버전 검사에 걸린다")
+    public void updateEventStaleVersion() {
+        // Given
+        Event event = this.generateEvent(200);
+        Event stale = this.eventRepository.findById(event.getId()).orElseThrow();
+
+        event.setName("winner");
+        this.eventRepository.save(event);
+
+        // When & Then
+        stale.setName("loser");
+        assertThatThrownBy(() -> this.eventRepository.save(stale))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+    }
+
+    @Test
+    @DisplayName("배열로 이벤트를 한번에 만들고 잘못된 항목은 위치와 함께 돌려받기")
+    public void createEvents() throws Exception {
+        // Given
+        List<EventDto> eventDtos = new ArrayList<>();
+        IntStream.range(0, 120).forEach(i -> {
+            eventDtos.add(this.generateEventDto(i));
+        });
+        eventDtos.set(3, new EventDto());
+        eventDtos.get(5).setName("Batch unicorn");
+        eventDtos.get(70).setBasePrice(20000);
+        eventDtos.get(70).setMaxPrice(1000);
+        long before = this.eventRepository.count();
+
+        // When & Then
+        this.mockMvc.perform(post("/api/events/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaTypes.HAL_JSON)
+                        .content(this.objectMapper.writeValueAsString(eventDtos)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("created.length()").value(118))
+                .andExpect(jsonPath("failures[0].index").value(3))
+                .andExpect(jsonPath("failures[0].errors[0].objectName").value("eventDto"))
+                .andExpect(jsonPath("failures[1].index").value(70))
+                .andExpect(jsonPath("failures[1].errors[0].field").value("basePrice"))
+                .andExpect(jsonPath("_links.query-events").exists())
+                .andExpect(jsonPath("_links.profile").exists());
+
+        assertThat(this.eventRepository.count()).isEqualTo(before + 118);
+        this.mockMvc.perform(get("/api/events/search").param("q", "unicorn"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.eventList[0].name").value("Batch unicorn"));
+    }
+
+    @Test
+    @DisplayName("배열 안의 null 항목은 500 대신 그 위치의 검증 오류로 돌려받기")
+    public void createEventsNullElement() throws Exception {
+        String valid = this.objectMapper.writeValueAsString(this.generateEventDto(1));
+        long before = this.eventRepository.count();
+
+        this.mockMvc.perform(post("/api/events/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + valid + ", null, " + valid + "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("created.length()").value(2))
+                .andExpect(jsonPath("failures.length()").value(1))
+                .andExpect(jsonPath("failures[0].index").value(1))
+                .andExpect(jsonPath("failures[0].errors[0].objectName").value("eventDto"))
+                .andExpect(jsonPath("failures[0].errors[0].code").value("NotNull"));
+
+        assertThat(this.eventRepository.count()).isEqualTo(before + 2);
+    }
+
+    @Test
+    @DisplayName("JSON 이 깨졌으면 아무것도 저장하지 않고 400")
+    public void createEventsMalformed() throws Exception {
+        String valid = this.objectMapper.writeValueAsString(this.generateEventDto(1));
+        long before = this.eventRepository.count();
+
+        this.mockMvc.perform(post("/api/events/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + valid + ", {\"name\": "))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0].code").value("malformedJson"));
+
+        assertThat(this.eventRepository.count()).isEqualTo(before);
+    }
+
     @Test
     @DisplayName("입력값이 비어있는 경우에 이벤트 수정 실패")
     public void updateEvent400() throws Exception {
@@ -364,6 +782,21 @@ public class EventControllerTest extends BaseControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    private EventDto generateEventDto(int i) {
+        return EventDto.builder()
+                .name("event" + i)
+                .description("REST API DEVELOpment with Spring")
+                .beginEnrollmentDateTime(LocalDateTime.of(2010, 11, 7, 11, 11, 30))
+                .closeEnrollmentDateTime(LocalDateTime.of(2010, 11, 8, 13, 11, 20))
+                .beginEventDateTime(LocalDateTime.of(2010, 11, 25, 20, 30, 11))
+                .endEventDateTime(LocalDateTime.of(2010, 11, 25, 20, 30, 12))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("강남역 D2 스타텁 팩토리")
+                .build();
+    }
+
     private Event generateEvent(int i) {
         Event event = Event.builder()
                 .name("event" + i)
@@ -0,0 +1,75 @@
+package com.example.demoinflearnrestapi.events;
+
+import com.example.demoinflearnrestapi.events.common.BaseControllerTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 다른 테스트와 DB 를 나누지 않으면 20만 건이 목록 조회 테스트에 섞인다.
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:exportdb",
+        "spring.datasource.hikari.jdbc-url=jdbc:h2:mem:exportdb"})
+public class EventExportServiceTest extends BaseControllerTest {
+
+    private static final int EVENTS = 200_000;
+    private static final int SAMPLE_EVERY = 25_000;
+
+    @Autowired
+    EventExportService eventExportService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("이벤트 수와 관계없이 내보내는 동안 힙이 늘어나지 않는다")
+    public void exportKeepsHeapFlat() throws Exception {
+        // Given
+        this.jdbcTemplate.update("""
+                insert into event (id, version, name, description,
+                    begin_enrollment_date_time, close_enrollment_date_time, begin_event_date_time, end_event_date_time,
+                    location, base_price, max_price, limit_of_enrollment, offline, free, event_status)
+                select x, 0, 'export' || x, 'REST API Development with Spring',
+                    timestamp '2010-11-07 11:11:30', timestamp '2010-11-08 13:11:20',
+                    timestamp '2010-11-25 20:30:11', timestamp '2010-11-25 20:30:12',
+                    '강남역 D2 스타텁 팩토리', 100, 200, 100, true, false, 'DRAFT'
+                from system_range(1, ?)""", EVENTS);
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        List<Long> samples = new ArrayList<>();
+        long baseline = usedHeapAfterGc(memory);
+
+        // When : 줄바꿈을 세면서 중간중간 살아있는 힙 크기를 잰다.
+        long[] lines = new long[1];
+        long exported = this.eventExportService.export(new OutputStream() {
+            @Override
+            public void write(int b) {
+                if (b == '\n' && ++lines[0] % SAMPLE_EVERY == 0) {
+                    samples.add(usedHeapAfterGc(memory) - baseline);
+                }
+            }
+        });
+
+        // Then : 20만 건의 EventView 를 모두 들고 있으면 100MB 가 넘는다.
+        //        첫 샘플에는 클래스 로딩 같은 일회성 비용이 섞이므로, 그 이후로 읽은 행 수만큼 늘어나지 않는지 본다.
+        assertThat(exported).isEqualTo(EVENTS);
+        assertThat(lines[0]).isEqualTo(EVENTS);
+        assertThat(samples).hasSize(EVENTS / SAMPLE_EVERY);
+        assertThat(samples).allSatisfy(growth -> assertThat(growth).isLessThan(32L * 1024 * 1024));
+        assertThat(samples.get(samples.size() - 1)).isLessThan(samples.get(0) + 2L * 1024 * 1024);
+    }
+
+    private static long usedHeapAfterGc(MemoryMXBean memory) {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
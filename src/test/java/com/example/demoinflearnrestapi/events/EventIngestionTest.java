@@ -0,0 +1,183 @@
+package com.example.demoinflearnrestapi.events;
+
+import com.example.demoinflearnrestapi.events.common.BaseControllerTest;
+import com.jayway.jsonpath.JsonPath;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@TestPropertySource(properties = "events.ingestion.enabled=true")
+public class EventIngestionTest extends BaseControllerTest {
+
+    @Autowired
+    EventIngestion eventIngestion;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Test
+    @DisplayName("Prefer: respond-async 면 202 와 상태 링크를 받고, 상태는 저장된 뒤 PERSISTED 와 event 링크")
+    public void createEventAsync() throws Exception {
+        // When
+        String location = this.mockMvc.perform(post("/api/events")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaTypes.HAL_JSON)
+                        .header("Prefer", "respond-async, wait=10")
+                        .content(this.objectMapper.writeValueAsString(generateEventDto(1))))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Preference-Applied", "respond-async"))
+                .andExpect(header().exists(HttpHeaders.LOCATION))
+                .andExpect(jsonPath("status").value("PENDING"))
+                .andExpect(jsonPath("_links.self").exists())
+                .andExpect(jsonPath("_links.profile").exists())
+                .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+
+        // Then
+        String body = null;
+        for (int i = 0; i < 50; i++) {
+            body = this.mockMvc.perform(get(location))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            if (!"PENDING".equals(JsonPath.read(body, "status"))) {
+                break;
+            }
+            Thread.sleep(100);
+        }
+        assertThat((String) JsonPath.read(body, "status")).isEqualTo("PERSISTED");
+        Integer eventId = JsonPath.read(body, "eventId");
+        assertThat((String) JsonPath.read(body, "_links.event.href")).endsWith("/api/events/" + eventId);
+        assertThat(this.eventRepository.findById(eventId)).get().extracting(Event::getName).isEqualTo("event1");
+    }
+
+    @Test
+    @DisplayName("검증은 바로 해서 잘못된 요청은 대기열에 넣지 않고 400, 모르는 상태는 404")
+    public void createEventAsyncBadRequest() throws Exception {
+        this.mockMvc.perform(post("/api/events")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Prefer", "respond-async")
+                        .content(this.objectMapper.writeValueAsString(new EventDto())))
+                .andExpect(status().isBadRequest());
+
+        this.mockMvc.perform(get("/api/events/ingestions/{id}", "unknown"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("대기열이 차면 기다리지 않고 거절한다")
+    public void queueFull() {
+        // Given
+        EventIngestionProperties properties = new EventIngestionProperties();
+        properties.setQueueCapacity(1);
+        EventIngestion ingestion = new EventIngestion(properties, null, null, null, new SimpleMeterRegistry(), 50);
+
+        // When
+        Optional<EventIngestionStatus> first = ingestion.submit(new Event());
+        Optional<EventIngestionStatus> second = ingestion.submit(new Event());
+
+        // Then
+        assertThat(first).get().extracting(EventIngestionStatus::status).isEqualTo(EventIngestionStatus.Status.PENDING);
+        assertThat(second).isEmpty();
+        assertThat(ingestion.pending()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("멈출 때 대기열에 남은 이벤트를 모두 저장하고, 멈춘 뒤에는 받지 않는다")
+    public void drainOnStop() {
+        // Given
+        List<EventIngestionStatus> submitted = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            Event event = this.modelMapper.map(generateEventDto(i), Event.class);
+            submitted.add(this.eventIngestion.submit(event).orElseThrow());
+        }
+
+        // When
+        this.eventIngestion.stop();
+        try {
+            // Then
+            assertThat(this.eventIngestion.pending()).isZero();
+            assertThat(submitted).allSatisfy(status -> assertThat(this.eventIngestion.status(status.id()))
+                    .get().extracting(EventIngestionStatus::status).isEqualTo(EventIngestionStatus.Status.PERSISTED));
+            assertThat(this.eventIngestion.submit(new Event())).isEmpty();
+        } finally {
+            this.eventIngestion.start();
+        }
+    }
+
+    @Test
+    @DisplayName("shutdown-timeout 안에 저장하지 못하고 대기열에 남은 이벤트는 FAILED 로 끝난다")
+    public void failAbandonedOnStop() throws Exception {
+        // Given : 첫 묶음의 트랜잭션이 멈춰 있어서 나머지는 대기열에 남는다.
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        doAnswer(invocation -> {
+            writing.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IllegalStateException("Interrupted while writing");
+        }).when(transactionManager).getTransaction(any());
+        EventIngestionProperties properties = new EventIngestionProperties();
+        properties.setShutdownTimeout(Duration.ofMillis(100));
+        EventIngestion ingestion = new EventIngestion(properties, null, transactionManager, null, new SimpleMeterRegistry(), 50);
+        ingestion.start();
+        try {
+            ingestion.submit(new Event()).orElseThrow();
+            assertThat(writing.await(10, TimeUnit.SECONDS)).isTrue();
+            List<EventIngestionStatus> queued = List.of(ingestion.submit(new Event()).orElseThrow(),
+                    ingestion.submit(new Event()).orElseThrow());
+
+            // When
+            ingestion.stop();
+
+            // Then
+            assertThat(ingestion.pending()).isZero();
+            assertThat(queued).allSatisfy(status -> assertThat(ingestion.status(status.id())).get()
+                    .satisfies(current -> {
+                        assertThat(current.status()).isEqualTo(EventIngestionStatus.Status.FAILED);
+                        assertThat(current.error()).isNotBlank();
+                    }));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private EventDto generateEventDto(int i) {
+        return EventDto.builder()
+                .name("event" + i)
+                .description("REST API Development with Spring")
+                .beginEnrollmentDateTime(LocalDateTime.of(2010, 11, 7, 11, 11, 30))
+                .closeEnrollmentDateTime(LocalDateTime.of(2010, 11, 8, 13, 11, 20))
+                .beginEventDateTime(LocalDateTime.of(2010, 11, 25, 20, 30, 11))
+                .endEventDateTime(LocalDateTime.of(2010, 11, 25, 20, 30, 12))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("강남역 D2 스타텁 팩토리")
+                .build();
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.demoinflearnrestapi.events;
+
+import com.example.demoinflearnrestapi.events.controller.EventController;
+import com.example.demoinflearnrestapi.events.controller.IndexController;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+class EventLinksTest {
+
+    EventLinks eventLinks = new EventLinks();
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void sameLinksAsWebMvcLinkBuilder() {
+        bindRequest("api.example.com", 443, "https");
+
+        EventLinkTemplate links = this.eventLinks.current();
+
+        assertThat(links.self(7)).isEqualTo(linkTo(EventController.class).slash(7).withSelfRel());
+        assertThat(links.updateEvent(7)).isEqualTo(linkTo(EventController.class).slash(7).withRel("update-event"));
+        assertThat(links.getQueryEvents()).isEqualTo(linkTo(EventController.class).withRel("query-events"));
+        assertThat(links.getIndex()).isEqualTo(linkTo(methodOn(IndexController.class).index()).withRel("index"));
+        assertThat(links.eventUri(7)).isEqualTo(linkTo(EventController.class).slash(7).toUri());
+    }
+
+    @Test
+    public void templatePerBaseUrl() {
+        bindRequest("localhost", 8080, "http");
+        EventLinkTemplate local = this.eventLinks.current();
+
+        bindRequest("localhost", 8080, "http");
+        assertThat(this.eventLinks.current()).isSameAs(local);
+
+        bindRequest("api.example.com", 443, "https");
+        EventLinkTemplate remote = this.eventLinks.current();
+        assertThat(remote).isNotSameAs(local);
+        assertThat(remote.self(1).getHref()).isEqualTo("https://api.example.com/api/events/1");
+        assertThat(local.self(1).getHref()).isEqualTo("http://localhost:8080/api/events/1");
+    }
+
+    private void bindRequest(String host, int port, String scheme) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/events");
+        request.setScheme(scheme);
+        request.setServerName(host);
+        request.setServerPort(port);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+}
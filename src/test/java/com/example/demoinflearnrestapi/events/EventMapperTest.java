@@ -0,0 +1,72 @@
+package com.example.demoinflearnrestapi.events;
+
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.modelmapper.ModelMapper;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventMapperTest {
+
+    EventMapper eventMapper = Mappers.getMapper(EventMapper.class);
+
+    ModelMapper modelMapper = new ModelMapper();
+
+    @Test
+    public void toEvent_sameAsModelMapper() {
+        EventDto eventDto = eventDto();
+
+        Event mapped = this.eventMapper.toEvent(eventDto);
+
+        assertThat(mapped).usingRecursiveComparison()
+                .isEqualTo(this.modelMapper.map(eventDto, Event.class));
+        assertThat(mapped.getId()).isNull();
+        assertThat(mapped.getEventStatus()).isEqualTo(EventStatus.DRAFT);
+    }
+
+    @Test
+    public void updateEvent_sameAsModelMapper() {
+        EventDto eventDto = eventDto();
+        eventDto.setLocation(null);
+
+        Event mapped = existingEvent();
+        this.eventMapper.updateEvent(eventDto, mapped);
+        Event expected = existingEvent();
+        this.modelMapper.map(eventDto, expected);
+
+        assertThat(mapped).usingRecursiveComparison().isEqualTo(expected);
+        assertThat(mapped.getId()).isEqualTo(10);
+        assertThat(mapped.getEventStatus()).isEqualTo(EventStatus.PUBLISHED);
+        assertThat(mapped.getLocation()).isNull();
+    }
+
+    private EventDto eventDto() {
+        return EventDto.builder()
+                .name("Spring")
+                .description("REST API Development with Spring")
+                .beginEnrollmentDateTime(LocalDateTime.of(2010, 11, 7, 11, 11, 30))
+                .closeEnrollmentDateTime(LocalDateTime.of(2010, 11, 8, 13, 11, 20))
+                .beginEventDateTime(LocalDateTime.of(2010, 11, 25, 20, 30, 11))
+                .endEventDateTime(LocalDateTime.of(2010, 11, 25, 20, 30, 12))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("강남역 D2 스타텁 팩토리")
+                .build();
+    }
+
+    private Event existingEvent() {
+        return Event.builder()
+                .id(10)
+                .name("old")
+                .description("old description")
+                .location("old location")
+                .basePrice(1)
+                .maxPrice(2)
+                .offline(true)
+                .eventStatus(EventStatus.PUBLISHED)
+                .build();
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.demoinflearnrestapi.events;
+
+import com.example.demoinflearnrestapi.events.EventSearchTest.RecordingStatementInspector;
+import com.example.demoinflearnrestapi.events.common.BaseControllerTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// UPDATE 문의 컬럼을 보려고 실행된 SQL 을 모은다. EventSearchTest 가 id 를 직접 넣은 DB 와는 따로 쓴다.
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:patchdb",
+        "spring.datasource.hikari.jdbc-url=jdbc:h2:mem:patchdb",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.example.demoinflearnrestapi.events.EventSearchTest$RecordingStatementInspector"})
+public class EventPatchTest extends BaseControllerTest {
+
+    private static final MediaType MERGE_PATCH = MediaType.parseMediaType(EventPatch.MEDIA_TYPE_VALUE);
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Test
+    @DisplayName("온 필드만 바꾸고, UPDATE 에는 바뀐 컬럼과 버전만 들어간다")
+    public void patchChangedColumnsOnly() throws Exception {
+        // Given
+        Event event = saveEvent();
+        RecordingStatementInspector.SQL.clear();
+
+        // When
+        String etag = this.mockMvc.perform(patch("/api/events/{id}", event.getId())
+                        .header(HttpHeaders.IF_MATCH, EventResource.eTagOf(event.getVersion()))
+                        .contentType(MERGE_PATCH)
+                        .content("{\"limitOfEnrollment\":30,\"eventStatus\":\"PUBLISHED\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("limitOfEnrollment").value(30))
+                .andExpect(jsonPath("eventStatus").value("PUBLISHED"))
+                .andExpect(jsonPath("name").value("patch"))
+                .andExpect(jsonPath("_links.profile").exists())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Then
+        List<String> updates = RecordingStatementInspector.SQL.stream()
+                .filter(sql -> sql.startsWith("update event "))
+                .toList();
+        assertThat(updates).hasSize(1);
+        assertThat(updates.get(0))
+                .contains("limit_of_enrollment=", "event_status=", "version=")
+                .doesNotContain("name=", "description=", "base_price=", "location=", "date_time=");
+        assertThat(etag).isEqualTo(EventResource.eTagOf(event.getVersion() + 1));
+    }
+
+    @Test
+    @DisplayName("가격을 하나만 바꿔도 기존 값과 합쳐서 가격 규칙을 보고, null 은 값을 지운다")
+    public void patchRevalidatesAffectedRules() throws Exception {
+        // Given
+        Event event = saveEvent();
+
+        // When & Then: basePrice 100 > maxPrice 50
+        this.mockMvc.perform(patch("/api/events/{id}", event.getId())
+                        .contentType(MERGE_PATCH)
+                        .content("{\"maxPrice\":50}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[?(@.code == 'wrongPrices')]").exists());
+
+        this.mockMvc.perform(patch("/api/events/{id}", event.getId())
+                        .contentType(MERGE_PATCH)
+                        .content("{\"name\":null}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0].field").value("name"))
+                .andExpect(jsonPath("errors[0].code").value("NotEmpty"));
+
+        this.mockMvc.perform(patch("/api/events/{id}", event.getId())
+                        .contentType(MERGE_PATCH)
+                        .content("{\"basePrice\":null,\"maxPrice\":null,\"location\":null}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("free").value(true))
+                .andExpect(jsonPath("offline").value(false));
+    }
+
+    @Test
+    @DisplayName("모르는 필드나 타입이 틀린 값은 아무것도 바꾸지 않고 400")
+    public void patchRejectsUnknownFields() throws Exception {
+        // Given
+        Event event = saveEvent();
+
+        // When & Then
+        this.mockMvc.perform(patch("/api/events/{id}", event.getId())
+                        .contentType(MERGE_PATCH)
+                        .content("{\"name\":\"changed\",\"manager\":1,\"limitOfEnrollment\":\"many\",\"eventStatus\":\"GONE\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors.length()").value(3))
+                .andExpect(jsonPath("errors[0].code").value("typeMismatch"));
+
+        this.mockMvc.perform(patch("/api/events/{id}", event.getId())
+                        .contentType(MERGE_PATCH)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+
+        this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(jsonPath("name").value("patch"))
+                .andExpect(jsonPath("limitOfEnrollment").value(100));
+    }
+
+    private Event saveEvent() {
+        LocalDateTime now = LocalDateTime.now();
+        Event event = Event.builder()
+                .name("patch")
+                .description("REST API Development with Spring")
+                .beginEnrollmentDateTime(now.plusDays(1))
+                .closeEnrollmentDateTime(now.plusDays(2))
+                .beginEventDateTime(now.plusDays(3))
+                .endEventDateTime(now.plusDays(4))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("강남역 D2 스타텁 팩토리")
+                .eventStatus(EventStatus.DRAFT)
+                .build();
+        event.update();
+        return this.eventRepository.save(event);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.demoinflearnrestapi.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.AnnotationLinkRelationProvider;
+import org.springframework.hateoas.server.core.DefaultLinkRelationProvider;
+import org.springframework.hateoas.server.core.DelegatingLinkRelationProvider;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventResourceSerializationTest {
+
+    @Test
+    @DisplayName("HAL 페이지, 단독 EventView 모두 기본 빈 직렬화와 같은 바이트를 쓴다")
+    public void sameBytesAsBeanSerializer() throws Exception {
+        // Given
+        ObjectMapper beanMapper = halObjectMapper(false);
+        ObjectMapper fastMapper = halObjectMapper(true);
+        List<EventView> events = List.of(
+                eventView(1, LocalDateTime.of(2010, 11, 7, 11, 11, 30), new EventView.ManagerView(7, "manager@email.com")),
+                eventView(2, LocalDateTime.of(2024, 1, 2, 3, 4), null),
+                eventView(3, LocalDateTime.of(999, 12, 31, 23, 59, 59, 120_000_000), null),
+                eventView(4, LocalDateTime.of(2024, 6, 30, 0, 0, 0, 1), null),
+                eventView(5, LocalDateTime.of(12345, 1, 1, 0, 0), null),
+                new EventView(null, null, null, null, null, null, null, null, null,
+                        0, 0, 0, false, false, null, new EventView.ManagerView(null, null)));
+        List<EntityModel<EventView>> resources = events.stream()
+                .map(event -> EntityModel.of(event, Link.of("http://localhost/api/events/" + event.id())))
+                .toList();
+        PagedModel<EntityModel<EventView>> page = PagedModel.of(resources,
+                new PagedModel.PageMetadata(20, 0, events.size()), Link.of("http://localhost/api/events"));
+
+        // When & Then
+        assertThat(fastMapper.writeValueAsString(page)).isEqualTo(beanMapper.writeValueAsString(page));
+        for (EventView event : events) {
+            assertThat(fastMapper.writeValueAsBytes(event)).isEqualTo(beanMapper.writeValueAsBytes(event));
+        }
+    }
+
+    @Test
+    @DisplayName("_embedded 를 wrapper 하나로 묶어도 항목마다 더한 것과 같은 바이트를 쓴다")
+    public void embeddedSameBytes() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/events");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            ObjectMapper mapper = halObjectMapper(true);
+            EventLinkTemplate links = new EventLinks().current();
+            List<EventResource> resources = IntStream.rangeClosed(1, 3)
+                    .mapToObj(id -> new EventResource(eventView(id, LocalDateTime.of(2010, 11, 7, 11, 11, 30), null), links))
+                    .toList();
+            PagedModel.PageMetadata metadata = new PagedModel.PageMetadata(20, 0, resources.size());
+
+            // When & Then
+            for (List<EventResource> content : List.of(resources, resources.subList(0, 1), List.<EventResource>of())) {
+                PagedModel<EventResource> page = PagedModel.of(content, metadata, Link.of("http://localhost/api/events"));
+                assertThat(mapper.writeValueAsString(EventResource.embedded(page)))
+                        .isEqualTo(mapper.writeValueAsString(page));
+                assertThat(mapper.writeValueAsString(CollectionModel.of(EventResource.embedded(content))))
+                        .isEqualTo(mapper.writeValueAsString(CollectionModel.of(content)));
+            }
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    private static EventView eventView(int id, LocalDateTime dateTime, EventView.ManagerView manager) {
+        return new EventView(id, 3, "event \"" + id + "\"", "설명\n" + id,
+                dateTime, dateTime.plusDays(1), dateTime.plusDays(2).plusNanos(5_000), dateTime.plusDays(3),
+                id % 2 == 0 ? null : "강남역", 100, 200, 10, id % 2 == 1, id % 2 == 0, EventStatus.PUBLISHED, manager);
+    }
+
+    // 애플리케이션의 HAL 응답과 같은 구성. EventViewSerializer 만 넣고 뺀다.
+    private static ObjectMapper halObjectMapper(boolean eventViewSerializer) {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .modulesToInstall(new Jackson2HalModule())
+                .handlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+                        new DelegatingLinkRelationProvider(
+                                new AnnotationLinkRelationProvider(), new DefaultLinkRelationProvider()),
+                        CurieProvider.NONE,
+                        MessageResolver.DEFAULTS_ONLY));
+        if (eventViewSerializer) {
+            builder.serializerByType(EventView.class, new EventViewSerializer());
+        }
+        return builder.build();
+    }
+}
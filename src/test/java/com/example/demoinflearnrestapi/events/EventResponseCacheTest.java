@@ -0,0 +1,99 @@
+package com.example.demoinflearnrestapi.events;
+
+import com.example.demoinflearnrestapi.events.EventResponseCache.CachedEventResponse;
+import com.example.demoinflearnrestapi.events.common.BaseControllerTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventResponseCacheTest extends BaseControllerTest {
+
+    @Autowired
+    EventResponseCache eventResponseCache;
+
+    @Autowired
+    EventLinks eventLinks;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void bindRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    void resetRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("같은 id 의 동시 miss 는 한번만 로드한다")
+    public void singleFlight() throws Exception {
+        EventLinkTemplate links = this.eventLinks.current();
+        Event event = Event.builder().id(987654).name("single flight").build();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<CachedEventResponse>> responses = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                responses.add(executor.submit(() -> {
+                    start.await();
+                    return this.eventResponseCache.get(links, event.getId(), () -> {
+                        loads.incrementAndGet();
+                        sleep();
+                        return Optional.of(new EventResource(EventView.from(event), links));
+                    });
+                }));
+            }
+            start.countDown();
+
+            String etag = responses.get(0).get(5, TimeUnit.SECONDS).etag();
+            for (Future<CachedEventResponse> response : responses) {
+                assertThat(response.get(5, TimeUnit.SECONDS).etag()).isEqualTo(etag);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(loads).hasValue(1);
+
+        double hits = hits();
+        this.eventResponseCache.get(links, event.getId(), Optional::empty);
+        assertThat(hits()).isEqualTo(hits + 1);
+
+        this.eventResponseCache.evict(event.getId());
+        assertThat(this.eventResponseCache.get(links, event.getId(), Optional::empty)).isNull();
+    }
+
+    private double hits() {
+        return this.meterRegistry.get("cache.gets")
+                .tag("cache", "eventResponses")
+                .tag("result", "hit")
+                .functionCounter()
+                .count();
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(200);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
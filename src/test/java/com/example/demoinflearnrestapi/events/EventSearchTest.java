@@ -0,0 +1,102 @@
+package com.example.demoinflearnrestapi.events;
+
+import com.example.demoinflearnrestapi.events.common.BaseControllerTest;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 값을 SQL 에 바로 써서 EXPLAIN 을 그대로 돌릴 수 있게 한다. 실행된 SQL 은 StatementInspector 로 모은다.
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:searchdb",
+        "spring.datasource.hikari.jdbc-url=jdbc:h2:mem:searchdb",
+        "spring.jpa.properties.hibernate.criteria.value_handling_mode=inline",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.example.demoinflearnrestapi.events.EventSearchTest$RecordingStatementInspector"})
+public class EventSearchTest extends BaseControllerTest {
+
+    private static final int EVENTS = 10_000;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        if (this.eventRepository.count() == 0) {
+            this.jdbcTemplate.update("""
+                    insert into event (id, version, name, description,
+                        begin_enrollment_date_time, close_enrollment_date_time, begin_event_date_time, end_event_date_time,
+                        location, base_price, max_price, limit_of_enrollment, offline, free, event_status)
+                    select x, 0, 'search' || x, 'REST API Development with Spring',
+                        timestamp '2010-11-07 11:11:30', timestamp '2010-11-08 13:11:20',
+                        timestamp '2020-01-01 10:00:00' + x * interval '1' hour, timestamp '2030-01-01 00:00:00',
+                        '강남역 D2 스타텁 팩토리', mod(x, 50) * 100, 10000, 100, mod(x, 2) = 0, mod(x, 50) = 0,
+                        case mod(x, 3) when 0 then 'DRAFT' when 1 then 'PUBLISHED' else 'BEGAN_ENROLLMENT' end
+                    from system_range(1, ?)""", EVENTS);
+            this.jdbcTemplate.execute("analyze");
+        }
+        RecordingStatementInspector.SQL.clear();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("searches")
+    @DisplayName("필터 조건은 인덱스 범위 스캔으로 읽는다")
+    public void searchUsesIndex(String description, EventSearch search, String index) {
+        // When
+        var page = this.eventRepository.findViews(search.toSpecification(), Pageable.unpaged());
+
+        // Then
+        assertThat(page.getContent()).isNotEmpty();
+        assertThat(RecordingStatementInspector.SQL).hasSize(1);
+        String plan = this.jdbcTemplate.queryForObject("explain " + RecordingStatementInspector.SQL.get(0), String.class);
+        assertThat(plan).containsIgnoringCase("PUBLIC." + index + ":");
+    }
+
+    private static Stream<Arguments> searches() {
+        LocalDateTime from = LocalDateTime.of(2020, 3, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2020, 3, 8, 0, 0);
+        return Stream.of(
+                Arguments.of("상태 + 날짜",
+                        EventSearch.builder().eventStatus(EventStatus.PUBLISHED).beginEventFrom(from).beginEventTo(to).build(),
+                        "idx_event_status_begin_event"),
+                Arguments.of("상태 + 가격",
+                        EventSearch.builder().eventStatus(EventStatus.DRAFT).minBasePrice(4000).maxBasePrice(4200).build(),
+                        "idx_event_status_base_price"),
+                Arguments.of("오프라인 + 무료 + 날짜",
+                        EventSearch.builder().offline(true).free(true).beginEventFrom(from).beginEventTo(to.plusMonths(3)).build(),
+                        "idx_event_offline_free_begin_event"),
+                Arguments.of("날짜",
+                        EventSearch.builder().beginEventFrom(from).beginEventTo(to).build(),
+                        "idx_event_begin_event"),
+                Arguments.of("가격",
+                        EventSearch.builder().minBasePrice(4000).maxBasePrice(4100).build(),
+                        "idx_event_base_price"));
+    }
+
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        static final List<String> SQL = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            SQL.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.demoinflearnrestapi.events;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EventSeatsTest {
+
+    private static final int EVENT_ID = 1;
+
+    private final EnrollmentRepository enrollmentRepository = mock(EnrollmentRepository.class);
+    private final EventSeats eventSeats = new EventSeats(this.enrollmentRepository);
+
+    @Test
+    @DisplayName("대기열에 커밋되지 않은 참가가 있는 채로 모집을 닫았다 다시 열어도 그 자리를 다시 내주지 않는다")
+    public void closeAndReopenWhileQueued() {
+        // Given: DB 에는 1 명, 대기열에 1 명
+        givenCapacity(EventStatus.BEGAN_ENROLLMENT, 2, 1);
+        assertThat(this.eventSeats.take(EVENT_ID)).isEqualTo(EventSeats.Take.TAKEN);
+
+        // When
+        this.eventSeats.onEventChanged(new EventChanged(event(EventStatus.PUBLISHED, 2)));
+        givenCapacity(EventStatus.PUBLISHED, 2, 1);
+        assertThat(this.eventSeats.take(EVENT_ID)).isEqualTo(EventSeats.Take.CLOSED);
+        givenCapacity(EventStatus.BEGAN_ENROLLMENT, 2, 1);
+
+        // Then
+        assertThat(this.eventSeats.take(EVENT_ID)).isEqualTo(EventSeats.Take.FULL);
+        this.eventSeats.committed(EVENT_ID);
+        assertThat(this.eventSeats.take(EVENT_ID)).isEqualTo(EventSeats.Take.FULL);
+    }
+
+    @Test
+    @DisplayName("닫았다 다시 연 뒤에 대기열의 참가가 실패하면 그 자리만 돌아온다")
+    public void releaseAfterReopen() {
+        // Given
+        givenCapacity(EventStatus.BEGAN_ENROLLMENT, 3, 1);
+        assertThat(this.eventSeats.take(EVENT_ID)).isEqualTo(EventSeats.Take.TAKEN);
+        this.eventSeats.onEventChanged(new EventChanged(event(EventStatus.PUBLISHED, 3)));
+
+        // When
+        assertThat(this.eventSeats.take(EVENT_ID)).isEqualTo(EventSeats.Take.TAKEN);
+        this.eventSeats.release(EVENT_ID);
+
+        // Then: 1 + 방금 가져간 1 + 돌아온 자리 1
+        assertThat(this.eventSeats.take(EVENT_ID)).isEqualTo(EventSeats.Take.TAKEN);
+        assertThat(this.eventSeats.take(EVENT_ID)).isEqualTo(EventSeats.Take.FULL);
+    }
+
+    @Test
+    @DisplayName("커밋되지 않은 자리가 없으면 닫을 때 내리고, 다시 열면 DB 의 참가 수로 센다")
+    public void removedWhenSettled() {
+        // Given
+        givenCapacity(EventStatus.BEGAN_ENROLLMENT, 2, 0);
+        assertThat(this.eventSeats.take(EVENT_ID)).isEqualTo(EventSeats.Take.TAKEN);
+        this.eventSeats.committed(EVENT_ID);
+
+        // When
+        this.eventSeats.onEventChanged(new EventChanged(event(EventStatus.PUBLISHED, 2)));
+        givenCapacity(EventStatus.BEGAN_ENROLLMENT, 2, 2);
+
+        // Then
+        assertThat(this.eventSeats.take(EVENT_ID)).isEqualTo(EventSeats.Take.FULL);
+    }
+
+    private void givenCapacity(EventStatus status, int limit, long enrolled) {
+        when(this.enrollmentRepository.findCapacity(EVENT_ID))
+                .thenReturn(Optional.of(new EventSeats.Capacity(status, limit, null, enrolled)));
+    }
+
+    private static Event event(EventStatus status, int limit) {
+        return Event.builder()
+                .id(EVENT_ID)
+                .eventStatus(status)
+                .limitOfEnrollment(limit)
+                .build();
+    }
+}
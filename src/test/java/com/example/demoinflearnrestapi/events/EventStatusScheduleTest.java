@@ -0,0 +1,117 @@
+package com.example.demoinflearnrestapi.events;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeout;
+
+class EventStatusScheduleTest {
+
+    @Test
+    @DisplayName("예정을 바꾸거나 취소하면 그대로 반영되고, 시각이 된 것만 이른 순서로 꺼낸다")
+    public void reschedule() {
+        // Given
+        EventStatusSchedule schedule = new EventStatusSchedule();
+        assertThat(schedule.schedule(1, 100)).isTrue();
+        assertThat(schedule.schedule(2, 50)).isTrue();
+        assertThat(schedule.schedule(3, 70)).isFalse();
+        assertThat(schedule.scheduleIfAbsent(3, 10)).isFalse();
+
+        // When
+        assertThat(schedule.schedule(1, 60)).isFalse();
+        schedule.cancel(2);
+        schedule.cancel(42);
+
+        // Then
+        int[] due = new int[10];
+        assertThat(schedule.nextDeadline()).isEqualTo(60);
+        assertThat(schedule.pollDue(59, due)).isZero();
+        assertThat(schedule.pollDue(70, due)).isEqualTo(2);
+        assertThat(due).startsWith(1, 3);
+        assertThat(schedule.size()).isZero();
+        assertThat(schedule.nextDeadline()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    @DisplayName("배열 범위를 벗어난 큰 id 나 음수 id 도 배열을 키우지 않고 같은 힙에서 예정하고 꺼낸다")
+    public void sparseIds() {
+        // Given
+        EventStatusSchedule schedule = new EventStatusSchedule();
+        schedule.schedule(Integer.MAX_VALUE, 30);
+        schedule.schedule(EventStatusSchedule.MAX_DENSE_ID, 20);
+        schedule.schedule(-5, 40);
+        schedule.schedule(1, 10);
+
+        // When
+        schedule.schedule(Integer.MAX_VALUE, 5);
+        schedule.cancel(-5);
+        assertThat(schedule.scheduleIfAbsent(EventStatusSchedule.MAX_DENSE_ID, 1)).isFalse();
+
+        // Then
+        int[] due = new int[10];
+        assertThat(schedule.contains(-5)).isFalse();
+        assertThat(schedule.pollDue(100, due)).isEqualTo(3);
+        assertThat(due).startsWith(Integer.MAX_VALUE, 1, EventStatusSchedule.MAX_DENSE_ID);
+        assertThat(schedule.contains(Integer.MAX_VALUE)).isFalse();
+        assertThat(schedule.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("백만 건을 예정하고 바꾸고 꺼내도 시각이 된 것만 보며, 꺼낸 순서와 개수가 맞다")
+    public void millionEvents() {
+        int events = 1_000_000;
+        long[] expected = new long[events + 1];
+        Random random = new Random(42);
+
+        assertTimeout(Duration.ofSeconds(30), () -> {
+            // Given: 한 달 안의 임의의 초
+            EventStatusSchedule schedule = new EventStatusSchedule();
+            for (int id = 1; id <= events; id++) {
+                expected[id] = random.nextInt(30 * 24 * 3600);
+                schedule.schedule(id, expected[id]);
+            }
+            // 10만 건은 시각을 바꾸고, 10만 건은 취소한다.
+            for (int i = 0; i < 100_000; i++) {
+                int id = 1 + random.nextInt(events);
+                expected[id] = random.nextInt(30 * 24 * 3600);
+                schedule.schedule(id, expected[id]);
+            }
+            int cancelled = 0;
+            for (int i = 0; i < 100_000; i++) {
+                int id = 1 + random.nextInt(events);
+                if (expected[id] >= 0) {
+                    cancelled++;
+                }
+                expected[id] = -1;
+                schedule.cancel(id);
+            }
+            assertThat(schedule.size()).isEqualTo(events - cancelled);
+
+            // When: 한 시간씩 시각을 옮기며 chunk 단위로 꺼낸다.
+            int[] due = new int[EventStatusScheduler.CHUNK_SIZE];
+            boolean[] polled = new boolean[events + 1];
+            int total = 0;
+            long previous = Long.MIN_VALUE;
+            for (long now = 0; schedule.size() > 0; now += 3600) {
+                int count;
+                while ((count = schedule.pollDue(now, due)) > 0) {
+                    for (int i = 0; i < count; i++) {
+                        int id = due[i];
+                        // Then: 취소하지 않았고, now 를 넘지 않고, 이른 순서이며, 한번만 나온다.
+                        assertThat(expected[id]).isBetween(Math.max(0, previous), now);
+                        assertThat(polled[id]).isFalse();
+                        polled[id] = true;
+                        previous = expected[id];
+                    }
+                    total += count;
+                }
+                assertThat(schedule.nextDeadline()).isGreaterThan(now);
+            }
+            assertThat(total).isEqualTo(events - cancelled);
+        });
+    }
+}
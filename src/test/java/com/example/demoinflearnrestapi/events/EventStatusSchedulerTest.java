@@ -0,0 +1,82 @@
+package com.example.demoinflearnrestapi.events;
+
+import com.example.demoinflearnrestapi.events.common.BaseControllerTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventStatusSchedulerTest extends BaseControllerTest {
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    EventStatusScheduler eventStatusScheduler;
+
+    @Test
+    @DisplayName("모집 시작 시각이 되면 PUBLISHED 이벤트만 BEGAN_ENROLLMENT 로 바뀌고 버전이 오른다")
+    public void advanceWhenDue() throws Exception {
+        // Given
+        LocalDateTime soon = LocalDateTime.now().plusSeconds(1);
+        Event published = saveEvent(EventStatus.PUBLISHED, soon);
+        Event draft = saveEvent(EventStatus.DRAFT, soon);
+        Event later = saveEvent(EventStatus.PUBLISHED, soon);
+
+        // When
+        this.eventStatusScheduler.onEventChanged(new EventChanged(published));
+        this.eventStatusScheduler.onEventChanged(new EventChanged(draft));
+        this.eventStatusScheduler.onEventChanged(new EventChanged(later));
+        later.setBeginEnrollmentDateTime(soon.plusDays(1));
+        later = this.eventRepository.save(later);
+        this.eventStatusScheduler.onEventChanged(new EventChanged(later));
+
+        // Then
+        Event advanced = awaitStatus(published.getId(), EventStatus.BEGAN_ENROLLMENT);
+        assertThat(advanced.getVersion()).isEqualTo(published.getVersion() + 1);
+        assertThat(this.eventRepository.findById(draft.getId())).get()
+                .extracting(Event::getEventStatus).isEqualTo(EventStatus.DRAFT);
+        assertThat(this.eventRepository.findById(later.getId())).get()
+                .extracting(Event::getEventStatus).isEqualTo(EventStatus.PUBLISHED);
+    }
+
+    @Test
+    @DisplayName("시작할 때 DB 에서 읽은 지난 예정은 바로 바뀐다")
+    public void loadOnStartup() throws Exception {
+        // Given
+        Event past = saveEvent(EventStatus.PUBLISHED, LocalDateTime.now().minusDays(1));
+
+        // When
+        this.eventStatusScheduler.load();
+
+        // Then
+        awaitStatus(past.getId(), EventStatus.BEGAN_ENROLLMENT);
+    }
+
+    private Event awaitStatus(Integer id, EventStatus status) throws InterruptedException {
+        Event event = null;
+        for (int i = 0; i < 50; i++) {
+            event = this.eventRepository.findById(id).orElseThrow();
+            if (event.getEventStatus() == status) {
+                break;
+            }
+            Thread.sleep(100);
+        }
+        assertThat(event.getEventStatus()).isEqualTo(status);
+        return event;
+    }
+
+    private Event saveEvent(EventStatus status, LocalDateTime beginEnrollment) {
+        return this.eventRepository.save(Event.builder()
+                .name("enrollment")
+                .beginEnrollmentDateTime(beginEnrollment)
+                .closeEnrollmentDateTime(beginEnrollment.plusDays(2))
+                .beginEventDateTime(beginEnrollment.plusDays(3))
+                .endEventDateTime(beginEnrollment.plusDays(4))
+                .eventStatus(status)
+                .build());
+    }
+}
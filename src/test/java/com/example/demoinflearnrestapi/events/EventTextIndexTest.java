@@ -0,0 +1,96 @@
+package com.example.demoinflearnrestapi.events;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventTextIndexTest {
+
+    @Test
+    @DisplayName("이름에 나온 단어가 설명에 나온 단어보다 높게 랭크되고, 페이지는 순위를 이어간다")
+    public void ranking() {
+        // Given
+        EventTextIndex index = new EventTextIndex();
+        index.index(1, 0, "Spring Batch", "Chunk processing");
+        index.index(2, 0, "JPA", "Spring Data JPA with spring boot");
+        index.index(3, 0, "Kotlin", "Coroutines");
+        index.index(4, 0, "Spring REST", "REST API Development with Spring");
+
+        // When
+        EventTextIndex.Hits hits = index.search("SPRING rest", 0, 10);
+
+        // Then
+        assertThat(hits.total()).isEqualTo(3);
+        assertThat(hits.ids()).containsExactly(4, 1, 2);
+        assertThat(hits.scores()).isSortedAccordingTo((a, b) -> Float.compare(b, a));
+
+        assertThat(index.search("spring rest", 1, 1).ids()).containsExactly(1);
+        assertThat(index.search("spring rest", 3, 10).ids()).isEmpty();
+        assertThat(index.search("hibernate", 0, 10).total()).isZero();
+        assertThat(index.search("  ", 0, 10).total()).isZero();
+    }
+
+    @Test
+    @DisplayName("수정하면 이전 단어는 빠지고, 더 낮은 버전의 색인 요청은 무시된다")
+    public void reindex() {
+        // Given
+        EventTextIndex index = new EventTextIndex();
+        index.index(7, 0, "강남역 스터디", "Spring");
+
+        // When
+        assertThat(index.index(7, 1, "판교 스터디", "Spring")).isTrue();
+        assertThat(index.index(7, 0, "강남역 스터디", "Spring")).isFalse();
+
+        // Then
+        assertThat(index.search("강남역", 0, 10).total()).isZero();
+        assertThat(index.search("판교", 0, 10).ids()).containsExactly(7);
+        assertThat(index.documentCount()).isEqualTo(1);
+
+        index.remove(7);
+        assertThat(index.search("스터디", 0, 10).total()).isZero();
+        assertThat(index.documentCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("id 가 뒤섞여 들어와도 postings 는 정렬되어 있고, 상위 N 건만 잘라서 돌려준다")
+    public void outOfOrderIds() {
+        // Given
+        EventTextIndex index = new EventTextIndex();
+        IntStream.of(5000, 3, 1700, 42, 2048, 9).forEach(id -> index.index(id, 0, "event", "event " + id));
+        index.trim();
+        index.index(1, 0, "event", "event late");
+
+        // When
+        EventTextIndex.Hits hits = index.search("event", 0, 3);
+
+        // Then : 모두 점수가 같으므로 id 순
+        assertThat(hits.total()).isEqualTo(7);
+        assertThat(hits.ids()).containsExactly(1, 3, 9);
+        assertThat(index.search("2048", 0, 10).ids()).containsExactly(2048);
+    }
+
+    @Test
+    @DisplayName("배열 범위를 벗어난 큰 id 나 음수 id 도 배열을 키우지 않고 색인, 수정, 삭제된다")
+    public void sparseIds() {
+        // Given
+        EventTextIndex index = new EventTextIndex();
+        index.index(1, 0, "Spring", "small id");
+        index.index(Integer.MAX_VALUE, 0, "Spring", "large id");
+        index.index(-3, 0, "Spring", "negative id");
+
+        // When
+        assertThat(index.index(Integer.MAX_VALUE, 1, "Spring", "reindexed")).isTrue();
+        assertThat(index.index(Integer.MAX_VALUE, 0, "Spring", "large id")).isFalse();
+        index.remove(-3);
+
+        // Then
+        assertThat(index.search("spring", 0, 10).ids()).containsExactlyInAnyOrder(1, Integer.MAX_VALUE);
+        assertThat(index.search("reindexed", 0, 10).ids()).containsExactly(Integer.MAX_VALUE);
+        assertThat(index.search("large", 0, 10).total()).isZero();
+        assertThat(index.search("negative", 0, 10).total()).isZero();
+        assertThat(index.documentCount()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.demoinflearnrestapi.events;
+
+import com.example.demoinflearnrestapi.events.common.BaseControllerTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// EventValidator 를 감싸서 컨텍스트가 따로 뜨므로 다른 테스트의 캐시와 id 가 섞이지 않게 DB 도 따로 쓴다.
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:conflictdb",
+        "spring.datasource.hikari.jdbc-url=jdbc:h2:mem:conflictdb"})
+public class EventUpdateConflictTest extends BaseControllerTest {
+
+    @SpyBean
+    EventValidator eventValidator;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("If-Match 검사를 통과한 뒤 저장 전에 다른 수정이 커밋되면 412")
+    public void updateEventConflictAtCommit() throws Exception {
+        // Given
+        Event event = this.eventRepository.save(Event.builder()
+                .name("conflict")
+                .description("REST API Development with Spring")
+                .beginEnrollmentDateTime(LocalDateTime.of(2018, 11, 23, 14, 21))
+                .closeEnrollmentDateTime(LocalDateTime.of(2018, 11, 24, 14, 21))
+                .beginEventDateTime(LocalDateTime.of(2018, 11, 25, 14, 21))
+                .endEventDateTime(LocalDateTime.of(2018, 11, 26, 14, 21))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .build());
+        String etag = EventResource.eTagOf(event.getVersion());
+        // If-Match 검사를 마친 뒤에 하는 검증 중에 다른 수정이 버전을 올린다.
+        doAnswer(invocation -> {
+            this.jdbcTemplate.update("update event set version = version + 1 where id = ?", event.getId());
+            return invocation.callRealMethod();
+        }).when(this.eventValidator).validate(any(EventDto.class));
+
+        EventDto eventDto = this.modelMapper.map(event, EventDto.class);
+        eventDto.setName("loser");
+
+        // When & Then
+        this.mockMvc.perform(put("/api/events/{id}", event.getId())
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(this.objectMapper.writeValueAsString(eventDto)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+
+        assertThat(this.jdbcTemplate.queryForObject("select name from event where id = ?", String.class, event.getId()))
+                .isEqualTo("conflict");
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.demoinflearnrestapi.events;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.validation.Errors;
+import org.springframework.validation.FieldError;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class EventValidatorTest {
+
+    private final EventValidator eventValidator = new EventValidator();
+
+    @Test
+    @DisplayName("정상 입력이면 Errors 를 만들지 않는다")
+    public void valid() {
+        assertThat(this.eventValidator.validate(eventDto())).isNull();
+    }
+
+    @Test
+    @DisplayName("빈 입력은 Bean Validation 과 같은 코드와 메시지로 모든 필드를 한번에 알려준다")
+    public void empty() {
+        // Given
+        EventDto eventDto = new EventDto();
+        eventDto.setBasePrice(-1);
+
+        // When
+        Errors errors = this.eventValidator.validate(eventDto);
+
+        // Then
+        assertThat(errors.getObjectName()).isEqualTo("eventDto");
+        assertThat(errors.getFieldErrors()).extracting(FieldError::getField, FieldError::getCode)
+                .containsExactly(
+                        tuple("name", "NotEmpty"),
+                        tuple("description", "NotEmpty"),
+                        tuple("beginEnrollmentDateTime", "NotNull"),
+                        tuple("closeEnrollmentDateTime", "NotNull"),
+                        tuple("beginEventDateTime", "NotNull"),
+                        tuple("endEventDateTime", "NotNull"),
+                        tuple("basePrice", "Min"));
+        assertThat(errors.getFieldError("basePrice").getDefaultMessage()).isEqualTo("must be greater than or equal to 0");
+        assertThat(errors.getFieldError("basePrice").getRejectedValue()).isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("이벤트 시작이 등록 마감보다 빠르거나, 등록 마감이 등록 시작보다 빠르면 실패한다")
+    public void dateOrder() {
+        // Given
+        EventDto beginBeforeClose = eventDto();
+        beginBeforeClose.setBeginEventDateTime(LocalDateTime.of(2010, 11, 8, 0, 0));
+        EventDto closeBeforeBegin = eventDto();
+        closeBeforeBegin.setCloseEnrollmentDateTime(LocalDateTime.of(2010, 11, 1, 0, 0));
+
+        // When
+        Errors beginErrors = this.eventValidator.validate(beginBeforeClose);
+        Errors closeErrors = this.eventValidator.validate(closeBeforeBegin);
+
+        // Then
+        assertThat(beginErrors.getFieldErrors()).extracting(FieldError::getField)
+                .containsExactly("beginEventDateTime");
+        assertThat(closeErrors.getFieldErrors()).extracting(FieldError::getField)
+                .containsExactly("closeEnrollmentDateTime");
+    }
+
+    private static EventDto eventDto() {
+        return EventDto.builder()
+                .name("Spring")
+                .description("REST API Development with Spring")
+                .beginEnrollmentDateTime(LocalDateTime.of(2010, 11, 7, 11, 11, 30))
+                .closeEnrollmentDateTime(LocalDateTime.of(2010, 11, 10, 11, 11, 30))
+                .beginEventDateTime(LocalDateTime.of(2010, 11, 12, 11, 11, 30))
+                .endEventDateTime(LocalDateTime.of(2010, 11, 14, 11, 11, 30))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("강남역 D2 스타텁 팩토리")
+                .build();
+    }
+}